@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Builds an AppCDS archive for the AOT-processed jar and reports startup time and time-to-first-request.
+# Usage: startup-benchmark.sh <application jar>
+# The training and timed runs start the real application, so the configured database must be reachable.
+set -euo pipefail
+
+JAR="$1"
+OUT_DIR="$(dirname "$JAR")/startup"
+PORT="${STARTUP_BENCH_PORT:-8090}"
+MANAGEMENT_PORT="${STARTUP_BENCH_MANAGEMENT_PORT:-8091}"
+PROFILE="${STARTUP_BENCH_PROFILE:-prod}"
+JVM_OPTS=(-Dspring.aot.enabled=true -Dspring.profiles.active="$PROFILE")
+
+now_ms() { echo $(( $(date +%s%N) / 1000000 )); }
+
+rm -rf "$OUT_DIR"
+java -Djarmode=tools -jar "$JAR" extract --destination "$OUT_DIR/app"
+APP_JAR="$OUT_DIR/app/$(basename "$JAR")"
+
+# Training run: refresh the context once, then dump the loaded classes into the archive
+java "${JVM_OPTS[@]}" -XX:ArchiveClassesAtExit="$OUT_DIR/app.jsa" -Dspring.context.exit=onRefresh \
+    -jar "$APP_JAR" > "$OUT_DIR/training.log" 2>&1
+
+# Timed run with the archive
+launched=$(now_ms)
+java "${JVM_OPTS[@]}" -XX:SharedArchiveFile="$OUT_DIR/app.jsa" -Dserver.port="$PORT" -Dmanagement.server.port="$MANAGEMENT_PORT" \
+    -jar "$APP_JAR" > "$OUT_DIR/app.log" 2>&1 &
+pid=$!
+trap 'kill "$pid" 2>/dev/null || true' EXIT
+
+until curl -sf "http://localhost:$MANAGEMENT_PORT/actuator/health" -o /dev/null; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+        echo "Application exited during startup, see $OUT_DIR/app.log" >&2
+        exit 1
+    fi
+    sleep 0.05
+done
+ready=$(now_ms)
+curl -sf "http://localhost:$PORT/api/occupancy" -o /dev/null
+first_request=$(now_ms)
+
+{
+    echo "Startup report ($PROFILE profile, AOT + AppCDS)"
+    grep -o 'Started CarParkingSystemApplication in .*' "$OUT_DIR/app.log" || true
+    echo "Time to ready:         $((ready - launched)) ms"
+    echo "Time to first request: $((first_request - launched)) ms"
+} | tee "$OUT_DIR/startup-report.txt"
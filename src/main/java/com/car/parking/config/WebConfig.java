@@ -1,11 +1,18 @@
 package com.car.parking.config;
 
+import com.car.parking.tracing.RequestTraceInterceptor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
+
+    private final RequestTraceInterceptor requestTraceInterceptor;
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         // Allow requests from your ngrok URL and localhost
@@ -15,4 +22,10 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedHeaders("*")
                 .allowCredentials(true);
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Attach the controller route to queries traced during the request
+        registry.addInterceptor(requestTraceInterceptor).addPathPatterns("/api/**");
+    }
 }
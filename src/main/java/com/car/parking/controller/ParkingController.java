@@ -1,18 +1,24 @@
 package com.car.parking.controller;
 
 import com.car.parking.model.*;
+import com.car.parking.service.HistoryExportService;
 import com.car.parking.service.ParkingService;
+import com.car.parking.service.ReservationService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.InputStreamResource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -22,6 +28,8 @@ import java.util.List;
 public class ParkingController {
 
     private final ParkingService parkingService;
+    private final ReservationService reservationService;
+    private final HistoryExportService historyExportService;
 
     // Initialize Parking
     @PostMapping("/initialize-parking")
@@ -54,6 +62,9 @@ public class ParkingController {
             if (response.contains("does not exist") || response.contains("is already occupied")) {
                 return ResponseEntity.badRequest().body("The selected parking spot is either invalid or already occupied for the registration number:" + vehicle.getRegistrationNumber());
             }
+            if (response.contains("is reserved")) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body("The selected parking spot is reserved for another vehicle.");
+            }
             return ResponseEntity.ok("Vehicle registered successfully!");
         } catch (Exception e) {
             // Log the error
@@ -140,6 +151,28 @@ public class ParkingController {
         }
     }
 
+    // Streaming export of history for finance: gzip CSV (default) or columnar, optionally limited to an exit-time range
+    @GetMapping("/history/export")
+    // Runs as an async task with its own timeout; the response is written directly once an export slot is free
+    public WebAsyncTask<Void> exportHistory(@RequestParam(defaultValue = "CSV") ExportFormat format,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                            HttpServletResponse response) {
+        return new WebAsyncTask<>(historyExportService.getTimeout().toMillis(), () -> {
+            boolean exported = historyExportService.exportHistory(format, from, to, () -> {
+                response.setContentType("application/gzip");
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=history." + format.getFileExtension());
+                return response.getOutputStream();
+            });
+            if (!exported) {
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+                response.getWriter().write("A history export is already running. Please try again later.");
+            }
+            return null;
+        });
+    }
+
     @GetMapping("/available-parking")
     public ResponseEntity<?> getAvailableParking() {
         try {
@@ -153,6 +186,34 @@ public class ParkingController {
         }
     }
 
+    // Compact occupancy: counts plus a base64 bitmap, one bit per slot ordered by zone then slot number (A1..A10, B1..)
+    @GetMapping("/occupancy")
+    public ResponseEntity<?> getOccupancy() {
+        try {
+            return ResponseEntity.ok(parkingService.getOccupancySnapshot());
+        } catch (Exception e) {
+            log.error("Error occurred while fetching occupancy", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("There was an issue fetching the parking occupancy. Please try again later.");
+        }
+    }
+
+    // Same bitmap as /occupancy, as raw bytes; the slot count is sent in the X-Slot-Count header
+    @GetMapping(value = "/occupancy/bitmap", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> getOccupancyBitmap() {
+        try {
+            OccupancySnapshot snapshot = parkingService.getOccupancySnapshot();
+            return ResponseEntity.ok()
+                    .header("X-Slot-Count", String.valueOf(snapshot.getSlotCount()))
+                    .body(snapshot.getBitmap());
+        } catch (Exception e) {
+            log.error("Error occurred while fetching the occupancy bitmap", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .body("There was an issue fetching the parking occupancy. Please try again later.");
+        }
+    }
+
     @GetMapping("/receipt")
     public ResponseEntity<?> getReceipt(@RequestParam String registrationNumber) {
         try {
@@ -183,6 +244,65 @@ public class ParkingController {
         }
     }
 
+    // Reserve a slot for a future window; any free slot is picked when zone and slot are omitted
+    @PostMapping("/reservations")
+    public ResponseEntity<?> reserve(@RequestBody ReservationRequest reservationRequest) {
+        try {
+            return ResponseEntity.ok(reservationService.reserve(reservationRequest));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error occurred while reserving a slot for registration number: {}", reservationRequest.getRegistrationNumber(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Something went wrong while creating the reservation. Please try again later.");
+        }
+    }
+
+    @DeleteMapping("/reservations/{id}")
+    public ResponseEntity<String> cancelReservation(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(reservationService.cancel(id));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error occurred while cancelling reservation: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Something went wrong while cancelling the reservation. Please try again later.");
+        }
+    }
+
+    @GetMapping("/reservations/free-slot")
+    public ResponseEntity<?> findFreeSlot(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        try {
+            ParkingLot parkingLot = reservationService.findFreeSlot(start, end);
+            if (parkingLot == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No parking slot is free for the requested window.");
+            }
+            return ResponseEntity.ok(parkingLot);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam String q, @RequestParam(defaultValue = "20") int limit) {
+        if (limit < 1 || limit > 1000) {
+            return ResponseEntity.badRequest().body("The limit must be between 1 and 1000.");
+        }
+        try {
+            return ResponseEntity.ok(parkingService.search(q, limit));
+        } catch (Exception e) {
+            log.error("Error occurred while searching for: {}", q, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("There was an issue running the search. Please try again later.");
+        }
+    }
+
     @GetMapping("/bookings")
     public List<BookingResponse> getAllBookings() {
         return parkingService.getAllVehicleDetails();
@@ -0,0 +1,61 @@
+package com.car.parking.model;
+
+import lombok.Data;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the append-only billing ledger. An EXIT event carries the bill, a PAYMENT event settles it.
+ * {@link History} and {@link Receipt} are read projections of this table.
+ */
+@Data
+@Entity
+@Immutable
+@Table(name = "billing_ledger")
+public class BillingEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_type")
+    private BillingEventType eventType;  // EXIT, PAYMENT
+
+    @Column(name = "bill_id")
+    private Long billId;  // For PAYMENT: the EXIT event being paid
+
+    @Column(name = "event_time")
+    private LocalDateTime eventTime;
+
+    @Column(name = "registration_number")
+    private String registrationNumber;
+
+    @Column(name = "vehicle_type")
+    private String vehicleType;
+
+    @Column(name = "owner_name")
+    private String ownerName;
+
+    @Column(name = "phone_number")
+    private String phoneNumber;
+
+    @Column(name = "entry_time")
+    private LocalDateTime entryTime;
+
+    @Column(name = "exit_time")
+    private LocalDateTime exitTime;
+
+    @Column(name = "total_duration")
+    private Long totalDuration;  // In minutes
+
+    @Column(name = "amount")
+    private Double amount;
+
+    @Column(name = "parking_zone")
+    private String parkingZone;
+
+    @Column(name = "parking_slot")
+    private String parkingSlot;
+}
@@ -0,0 +1,20 @@
+package com.car.parking.model;
+
+/**
+ * Kind of billing ledger entry: EXIT carries the bill, PAYMENT settles it.
+ */
+public enum BillingEventType implements CodedEnum {
+    EXIT((short) 0),
+    PAYMENT((short) 1);
+
+    private final short code;
+
+    BillingEventType(short code) {
+        this.code = code;
+    }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
+}
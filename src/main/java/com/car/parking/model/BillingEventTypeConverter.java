@@ -0,0 +1,11 @@
+package com.car.parking.model;
+
+import jakarta.persistence.Converter;
+
+@Converter(autoApply = true)
+public class BillingEventTypeConverter extends CodedEnumConverter<BillingEventType> {
+
+    public BillingEventTypeConverter() {
+        super(BillingEventType.class);
+    }
+}
@@ -11,7 +11,7 @@ public class BookingResponse {
     private String vehicleType;
     private String zone;
     private String slot;
-    private String status;  // PAID/UNPAID
+    private SlotStatus status;  // Occupied or Available
     private String entryTime;
     private String exitTime;
 
@@ -0,0 +1,19 @@
+package com.car.parking.model;
+
+/**
+ * Enum persisted as a small integer code instead of its name, see {@link CodedEnumConverter}.
+ * Codes are part of the schema: never renumber an existing constant.
+ */
+public interface CodedEnum {
+
+    short getCode();
+
+    static <E extends Enum<E> & CodedEnum> E fromCode(Class<E> type, short code) {
+        for (E constant : type.getEnumConstants()) {
+            if (constant.getCode() == code) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("Unknown " + type.getSimpleName() + " code: " + code);
+    }
+}
@@ -0,0 +1,25 @@
+package com.car.parking.model;
+
+import jakarta.persistence.AttributeConverter;
+
+/**
+ * Maps a {@link CodedEnum} to its smallint column. Each enum registers a one-line auto-applied subclass.
+ */
+public abstract class CodedEnumConverter<E extends Enum<E> & CodedEnum> implements AttributeConverter<E, Short> {
+
+    private final Class<E> type;
+
+    protected CodedEnumConverter(Class<E> type) {
+        this.type = type;
+    }
+
+    @Override
+    public Short convertToDatabaseColumn(E value) {
+        return value != null ? value.getCode() : null;
+    }
+
+    @Override
+    public E convertToEntityAttribute(Short code) {
+        return code != null ? CodedEnum.fromCode(type, code) : null;
+    }
+}
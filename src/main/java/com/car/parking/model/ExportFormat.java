@@ -0,0 +1,19 @@
+package com.car.parking.model;
+
+/**
+ * Encodings supported by the history export. Both are gzip-compressed.
+ */
+public enum ExportFormat {
+    CSV("csv.gz"),
+    COLUMNAR("pcol.gz");
+
+    private final String fileExtension;
+
+    ExportFormat(String fileExtension) {
+        this.fileExtension = fileExtension;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+}
@@ -2,15 +2,23 @@ package com.car.parking.model;
 
 import lombok.Data;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Synchronize;
+
 import java.time.LocalDateTime;
 
+/**
+ * Read projection of the billing ledger (the billing_history view): one row per EXIT event, PAID once a PAYMENT
+ * event references it.
+ */
 @Data
 @Entity
-@Table(name = "history")
+@Immutable
+@Table(name = "billing_history")
+@Synchronize("billing_ledger")
 public class History {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @Column(name = "registration_number")
@@ -38,7 +46,7 @@ public class History {
     private double amount;
 
     @Column(name = "status")
-    private String status;  // UNPAID, PAID
+    private PaymentStatus status;  // UNPAID, PAID
 
     // New fields added for parking zone and slot details
     @Column(name = "parking_zone")
@@ -0,0 +1,17 @@
+package com.car.parking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccupancySnapshot {
+
+    private int slotCount;
+    private int occupiedCount;
+    // One bit per slot, ordered by zone then slot number (A1..A10, B1..): slot i is bit i % 8 (least significant
+    // first) of byte i / 8. Bit set = occupied; base64 in JSON
+    private byte[] bitmap;
+}
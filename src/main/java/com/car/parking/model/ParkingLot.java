@@ -19,7 +19,7 @@ public class ParkingLot {
     private String slot;  // A1, A2, A3...A10, etc.
 
     @Column(name = "booked_slot_status")
-    private String bookedSlotStatus;  // Occupied or Available
+    private SlotStatus bookedSlotStatus;  // Occupied or Available
 
     @Column(name = "vehicle_registration_number")
     private String vehicleRegistrationNumber;  // Assigned vehicle's registration number
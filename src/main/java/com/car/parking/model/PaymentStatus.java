@@ -0,0 +1,20 @@
+package com.car.parking.model;
+
+/**
+ * Payment state of a bill.
+ */
+public enum PaymentStatus implements CodedEnum {
+    UNPAID((short) 0),
+    PAID((short) 1);
+
+    private final short code;
+
+    PaymentStatus(short code) {
+        this.code = code;
+    }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
+}
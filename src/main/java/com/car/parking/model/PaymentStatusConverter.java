@@ -0,0 +1,11 @@
+package com.car.parking.model;
+
+import jakarta.persistence.Converter;
+
+@Converter(autoApply = true)
+public class PaymentStatusConverter extends CodedEnumConverter<PaymentStatus> {
+
+    public PaymentStatusConverter() {
+        super(PaymentStatus.class);
+    }
+}
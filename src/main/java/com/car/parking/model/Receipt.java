@@ -1,15 +1,23 @@
 package com.car.parking.model;
 import lombok.Data;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Synchronize;
+
 import java.time.LocalDateTime;
 
+/**
+ * Read projection of the billing ledger (the billing_history view): the receipt for an EXIT event, dated by its
+ * payment once paid.
+ */
 @Data
 @Entity
-@Table(name = "receipts")
+@Immutable
+@Table(name = "billing_history")
+@Synchronize("billing_ledger")
 public class Receipt {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @Column(name = "registration_number")
@@ -34,5 +42,5 @@ public class Receipt {
     private LocalDateTime receiptDate;  // Date when the receipt is generated
 
     @Column(name = "status")
-    private String status;  // Paid or Unpaid
+    private PaymentStatus status;  // Paid or Unpaid
 }
@@ -0,0 +1,44 @@
+package com.car.parking.model;
+
+import lombok.Data;
+import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "reservations")
+public class Reservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "registration_number")
+    private String registrationNumber;
+
+    @Column(name = "owner_name")
+    private String ownerName;
+
+    @Column(name = "phone_number")
+    private String phoneNumber;
+
+    @Column(name = "zone")
+    private String zone;
+
+    @Column(name = "slot")
+    private String slot;
+
+    @Column(name = "start_time")
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time")
+    private LocalDateTime endTime;  // Exclusive
+
+    @Column(name = "status")
+    private ReservationStatus status;  // ACTIVE, FULFILLED, CANCELLED, EXPIRED
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;  // Last insert or update, whichever node made it
+}
@@ -0,0 +1,19 @@
+package com.car.parking.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class ReservationRequest {
+    private String registrationNumber;
+    private String ownerName;
+    private String phoneNumber;
+    private String zone;  // Optional together with slot: any free slot is picked when omitted
+    private String slot;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+
+}
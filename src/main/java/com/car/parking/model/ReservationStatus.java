@@ -0,0 +1,23 @@
+package com.car.parking.model;
+
+/**
+ * Lifecycle of an advance reservation. ACTIVE and FULFILLED reservations hold their window; a fulfilled one is
+ * cut short when its holder pays and leaves.
+ */
+public enum ReservationStatus implements CodedEnum {
+    ACTIVE((short) 0),
+    FULFILLED((short) 1),
+    CANCELLED((short) 2),
+    EXPIRED((short) 3);
+
+    private final short code;
+
+    ReservationStatus(short code) {
+        this.code = code;
+    }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
+}
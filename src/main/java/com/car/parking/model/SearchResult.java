@@ -0,0 +1,20 @@
+package com.car.parking.model;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class SearchResult {
+
+    private String registrationNumber;
+    private String ownerName;
+    private String phoneNumber;
+    private String vehicleType;
+    private boolean parked;  // Currently holds a slot
+    private String zone;
+    private String slot;
+    private LocalDateTime lastSeen;  // Entry time while parked, otherwise the last exit
+    private PaymentStatus lastStatus;  // Status of the last bill, null if never billed
+    private double score;
+}
@@ -0,0 +1,29 @@
+package com.car.parking.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Occupancy state of a parking slot. JSON keeps the original "Available"/"Occupied" labels.
+ */
+public enum SlotStatus implements CodedEnum {
+    AVAILABLE((short) 0, "Available"),
+    OCCUPIED((short) 1, "Occupied");
+
+    private final short code;
+    private final String label;
+
+    SlotStatus(short code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
+
+    @JsonValue
+    public String getLabel() {
+        return label;
+    }
+}
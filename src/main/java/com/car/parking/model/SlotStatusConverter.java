@@ -0,0 +1,11 @@
+package com.car.parking.model;
+
+import jakarta.persistence.Converter;
+
+@Converter(autoApply = true)
+public class SlotStatusConverter extends CodedEnumConverter<SlotStatus> {
+
+    public SlotStatusConverter() {
+        super(SlotStatus.class);
+    }
+}
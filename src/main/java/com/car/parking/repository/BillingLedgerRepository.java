@@ -0,0 +1,9 @@
+package com.car.parking.repository;
+
+import com.car.parking.model.BillingEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BillingLedgerRepository extends JpaRepository<BillingEvent, Long> {
+}
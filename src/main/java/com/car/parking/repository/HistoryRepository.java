@@ -1,6 +1,7 @@
 package com.car.parking.repository;
 
 import com.car.parking.model.History;
+import com.car.parking.model.PaymentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,7 +9,7 @@ import java.util.Optional;
 
 @Repository
 public interface HistoryRepository extends JpaRepository<History, Long> {
-    History findByRegistrationNumberAndStatus(String registrationNumber, String status);
+    History findByRegistrationNumberAndStatus(String registrationNumber, PaymentStatus status);
 
 }
 
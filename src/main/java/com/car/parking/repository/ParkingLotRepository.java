@@ -1,7 +1,9 @@
 package com.car.parking.repository;
 
 import com.car.parking.model.ParkingLot;
+import com.car.parking.model.SlotStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,5 +14,14 @@ public interface ParkingLotRepository extends JpaRepository<ParkingLot, Long> {
 
     List<ParkingLot> findByVehicleRegistrationNumberIsNotNull();
 
-    ParkingLot findByZoneAndSlotAndBookedSlotStatus(String zone, String slot, String bookedSlotStatus);
+    ParkingLot findByZoneAndSlot(String zone, String slot);
+
+    ParkingLot findByZoneAndSlotAndBookedSlotStatus(String zone, String slot, SlotStatus bookedSlotStatus);
+
+    // Both in zone, then slot number order: A1, A2 .. A10, B1 ..
+    @Query("select p from ParkingLot p order by p.zone, length(p.slot), p.slot")
+    List<ParkingLot> findAllInSlotOrder();
+
+    @Query("select p.bookedSlotStatus from ParkingLot p order by p.zone, length(p.slot), p.slot")
+    List<SlotStatus> findAllStatusesInSlotOrder();
 }
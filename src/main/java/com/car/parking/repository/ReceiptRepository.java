@@ -6,5 +6,6 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ReceiptRepository extends JpaRepository<Receipt, Long> {
+    Receipt findFirstByRegistrationNumberOrderByIdDesc(String registrationNumber);
 }
 
@@ -0,0 +1,24 @@
+package com.car.parking.repository;
+
+import com.car.parking.model.Reservation;
+import com.car.parking.model.ReservationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+    List<Reservation> findByStatusInAndEndTimeAfter(Collection<ReservationStatus> statuses, LocalDateTime time);
+
+    List<Reservation> findByUpdatedAtAfterOrderByUpdatedAt(LocalDateTime time);
+
+    List<Reservation> findByStatusAndStartTimeBefore(ReservationStatus status, LocalDateTime time);
+
+    Reservation findByZoneAndSlotAndStartTimeAndStatus(String zone, String slot, LocalDateTime startTime, ReservationStatus status);
+
+    Reservation findByZoneAndSlotAndRegistrationNumberAndStatusAndEndTimeAfter(String zone, String slot, String registrationNumber,
+                                                                              ReservationStatus status, LocalDateTime time);
+}
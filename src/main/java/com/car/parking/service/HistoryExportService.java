@@ -0,0 +1,317 @@
+package com.car.parking.service;
+
+import com.car.parking.model.ExportFormat;
+import com.car.parking.model.PaymentStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.function.ThrowingSupplier;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams billing history straight from a database cursor into a gzip-compressed CSV or columnar encoding.
+ * Memory use is bounded by the fetch size and, for the columnar format, one block of rows, whatever the row count.
+ * Exports run one at a time (by default) so a large dump holds at most that many pool connections.
+ */
+@Service
+@Slf4j
+public class HistoryExportService {
+
+    static final String[] COLUMNS = {
+            "id", "registration_number", "vehicle_type", "owner_name", "phone_number", "entry_time", "exit_time",
+            "total_duration", "amount", "parking_zone", "parking_slot", "status", "paid_time"
+    };
+
+    private static final String EXPORT_QUERY =
+            "select id, registration_number, vehicle_type, owner_name, phone_number, entry_time, exit_time, "
+                    + "total_duration, amount, parking_zone, parking_slot, paid_time from billing_history";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Semaphore exportPermits;
+    private final Duration timeout;
+
+    public HistoryExportService(DataSource dataSource,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${parking.export.fetch-size:1000}") int fetchSize,
+                                @Value("${parking.export.max-concurrent:1}") int maxConcurrent,
+                                @Value("${parking.export.timeout:PT1H}") Duration timeout) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        // PostgreSQL only streams through a cursor inside a transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.exportPermits = new Semaphore(maxConcurrent);
+        this.timeout = timeout;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Streams history rows with an exit time in [from, to) (either bound may be null) into the stream opened by
+     * {@code output}. Returns false without opening the stream when the maximum number of exports is already
+     * running. The permit is taken and released on the exporting thread, so it cannot outlive the export.
+     */
+    public boolean exportHistory(ExportFormat format, LocalDateTime from, LocalDateTime to,
+                                 ThrowingSupplier<OutputStream> output) throws IOException {
+        if (!exportPermits.tryAcquire()) {
+            return false;
+        }
+        try {
+            GZIPOutputStream gzip = new GZIPOutputStream(new BufferedOutputStream(output.get(), 64 * 1024), 64 * 1024);
+            RowWriter writer = format == ExportFormat.CSV ? new CsvRowWriter(gzip) : new ColumnarRowWriter(gzip);
+            long rows = stream(from, to, writer);
+            writer.finish();
+            gzip.finish();
+            gzip.flush();
+            log.info("Exported {} history rows as {}", rows, format);
+            return true;
+        } finally {
+            exportPermits.release();
+        }
+    }
+
+    private long stream(LocalDateTime from, LocalDateTime to, RowWriter writer) {
+        StringBuilder sql = new StringBuilder(EXPORT_QUERY);
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (from != null) {
+            conditions.add("exit_time >= ?");
+            args.add(from);
+        }
+        if (to != null) {
+            conditions.add("exit_time < ?");
+            args.add(to);
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" where ").append(String.join(" and ", conditions));
+        }
+        sql.append(" order by id");
+
+        long[] rows = {0};
+        RowCallbackHandler handler = rs -> {
+            try {
+                writer.write(readRow(rs));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows[0]++;
+        };
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(sql.toString(), handler, args.toArray()));
+        return rows[0];
+    }
+
+    private static Object[] readRow(ResultSet rs) throws SQLException {
+        LocalDateTime paidTime = rs.getObject("paid_time", LocalDateTime.class);
+        return new Object[]{
+                rs.getLong("id"),
+                rs.getString("registration_number"),
+                rs.getString("vehicle_type"),
+                rs.getString("owner_name"),
+                rs.getString("phone_number"),
+                rs.getObject("entry_time", LocalDateTime.class),
+                rs.getObject("exit_time", LocalDateTime.class),
+                rs.getObject("total_duration", Long.class),
+                rs.getObject("amount", Double.class),
+                rs.getString("parking_zone"),
+                rs.getString("parking_slot"),
+                (paidTime != null ? PaymentStatus.PAID : PaymentStatus.UNPAID).name(),
+                paidTime
+        };
+    }
+
+    // Package-private, like the writers below, so their output can be decoded and checked in tests
+    interface RowWriter {
+        void write(Object[] row) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    // RFC 4180 CSV with a header row
+    static class CsvRowWriter implements RowWriter {
+
+        private final Writer out;
+
+        CsvRowWriter(OutputStream outputStream) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+            out.write(String.join(",", COLUMNS));
+            out.write("\r\n");
+        }
+
+        @Override
+        public void write(Object[] row) throws IOException {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                if (row[i] != null) {
+                    writeField(row[i].toString());
+                }
+            }
+            out.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            out.flush();
+        }
+    }
+
+    /**
+     * Block-columnar encoding. Layout (big-endian, as written by {@link DataOutputStream}):
+     * <pre>
+     * "PHC1", column count, then per column: name (UTF), type (byte: 0 = string, 1 = long, 2 = double, 3 = timestamp)
+     * blocks:   row count (int, 0 ends the stream), then each column's values for the block in turn
+     *   string:    dictionary size (varint), dictionary entries (UTF), then one varint per row: 0 = null, n = entry n-1
+     *   long:      presence bitmap, then the present values as longs
+     *   double:    presence bitmap, then the present values as doubles
+     *   timestamp: presence bitmap, then the present values as epoch milliseconds (UTC)
+     * </pre>
+     * Strings are written with {@link DataOutputStream#writeUTF}, so {@link java.io.DataInputStream#readUTF} reads
+ * them back. Low-cardinality columns (vehicle type, zone, slot, status) collapse to one byte per row before
+ * compression.
+     */
+    static class ColumnarRowWriter implements RowWriter {
+
+        static final int BLOCK_SIZE = 8192;
+        private static final byte STRING = 0;
+        private static final byte LONG = 1;
+        private static final byte DOUBLE = 2;
+        private static final byte TIMESTAMP = 3;
+        private static final byte[] TYPES = {
+                LONG, STRING, STRING, STRING, STRING, TIMESTAMP, TIMESTAMP, LONG, DOUBLE, STRING, STRING, STRING, TIMESTAMP
+        };
+
+        private final DataOutputStream out;
+        private final Object[][] block = new Object[COLUMNS.length][BLOCK_SIZE];
+        private int rows;
+
+        ColumnarRowWriter(OutputStream outputStream) throws IOException {
+            this.out = new DataOutputStream(outputStream);
+            out.writeBytes("PHC1");
+            out.writeInt(COLUMNS.length);
+            for (int i = 0; i < COLUMNS.length; i++) {
+                out.writeUTF(COLUMNS[i]);
+                out.writeByte(TYPES[i]);
+            }
+        }
+
+        @Override
+        public void write(Object[] row) throws IOException {
+            for (int column = 0; column < row.length; column++) {
+                block[column][rows] = row[column];
+            }
+            if (++rows == BLOCK_SIZE) {
+                flushBlock();
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (rows > 0) {
+                flushBlock();
+            }
+            out.writeInt(0);
+            out.flush();
+        }
+
+        private void flushBlock() throws IOException {
+            out.writeInt(rows);
+            for (int column = 0; column < COLUMNS.length; column++) {
+                Object[] values = block[column];
+                if (TYPES[column] == STRING) {
+                    writeStrings(values);
+                } else {
+                    writePresence(values);
+                    for (int i = 0; i < rows; i++) {
+                        Object value = values[i];
+                        if (value instanceof Long l) {
+                            out.writeLong(l);
+                        } else if (value instanceof Double d) {
+                            out.writeDouble(d);
+                        } else if (value instanceof LocalDateTime time) {
+                            out.writeLong(time.toInstant(ZoneOffset.UTC).toEpochMilli());
+                        }
+                    }
+                }
+                Arrays.fill(values, 0, rows, null);
+            }
+            rows = 0;
+        }
+
+        private void writeStrings(Object[] values) throws IOException {
+            Map<Object, Integer> dictionary = new HashMap<>();
+            List<Object> entries = new ArrayList<>();
+            for (int i = 0; i < rows; i++) {
+                if (values[i] != null && dictionary.putIfAbsent(values[i], entries.size() + 1) == null) {
+                    entries.add(values[i]);
+                }
+            }
+            writeVarInt(entries.size());
+            for (Object entry : entries) {
+                out.writeUTF((String) entry);
+            }
+            for (int i = 0; i < rows; i++) {
+                writeVarInt(values[i] == null ? 0 : dictionary.get(values[i]));
+            }
+        }
+
+        private void writePresence(Object[] values) throws IOException {
+            for (int i = 0; i < rows; i += 8) {
+                int bits = 0;
+                for (int bit = 0; bit < 8 && i + bit < rows; bit++) {
+                    if (values[i + bit] != null) {
+                        bits |= 1 << bit;
+                    }
+                }
+                out.writeByte(bits);
+            }
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+    }
+}
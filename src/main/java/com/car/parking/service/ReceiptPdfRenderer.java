@@ -0,0 +1,132 @@
+package com.car.parking.service;
+
+import com.car.parking.model.Receipt;
+import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Renders thermal-size receipt PDFs. Lazy, so nodes that never render receipts never load the PDF stack.
+ */
+@Component
+@Lazy
+public class ReceiptPdfRenderer {
+
+    public ByteArrayInputStream render(Receipt receipt) {
+        try {
+            // Format the receipt date
+            String formattedDate = formatDateTime(receipt.getReceiptDate().toString());
+
+            // HTML content with inline CSS and media queries for thermal receipt size and adjusted barcode size
+            String htmlContent = "<!DOCTYPE html>\n" +
+                    "<html>\n" +
+                    "<head>\n" +
+                    "<style>\n" +
+                    "body {\n" +
+                    "    font-family: Arial, sans-serif;\n" +
+                    "    margin: 0;\n" +
+                    "    padding: 0;\n" +
+                    "    text-align: center;\n" +
+                    "    max-width: 100%;\n" +
+                    "    box-sizing: border-box;\n" +
+                    "}\n" +
+                    ".container {\n" +
+                    "    display: flex;\n" +
+                    "    flex-direction: column;\n" +
+                    "    align-items: center;\n" +
+                    "    justify-content: space-between;\n" +
+                    "    padding: 5px;\n" +
+                    "    width: 90%;\n" +
+                    "    margin: 0 auto;\n" +
+                    "    border: 1px solid #000;\n" +
+                    "    box-sizing: border-box;\n" +
+                    "    height: 100%;\n" +
+                    "}\n" +
+                    "h1 {\n" +
+                    "    font-size: 14px;\n" +
+                    "    margin-bottom: 5px;\n" +
+                    "    padding-bottom: 5px;\n" +
+                    "}\n" +
+                    ".details {\n" +
+                    "    text-align: left;\n" +
+                    "    margin-bottom: 5px;\n" +
+                    "}\n" +
+                    ".details p {\n" +
+                    "    margin: 2px 0;\n" +
+                    "    font-size: 9px;\n" +
+                    "}\n" +
+                    ".barcode {\n" +
+                    "    margin-top: 2px;\n" +
+                    "    text-align: center;\n" +
+                    "    padding: 0;\n" +
+                    "    margin-bottom: 5px;\n" +
+                    "}\n" +
+                    "img {\n" +
+                    "    width: 100%;\n" +
+                    "    max-height: 25px;\n" +
+                    "}\n" +
+                    "@media print {\n" +
+                    "  body { width: 100%; }\n" +
+                    "  .container { width: 90%; }\n" +
+                    "  h1, .details p { font-size: 12px; }\n" +
+                    "}\n" +
+                    "</style>\n" +
+                    "</head>\n" +
+                    "<body>\n" +
+                    "<div class='container'>\n" +
+                    "    <h1>Parking Receipt</h1>\n" +
+                    "    <div class='details'>\n" +
+                    "        <p><strong>Registration Number:</strong> " + receipt.getRegistrationNumber() + "</p>\n" +
+                    "        <p><strong>Vehicle Type:</strong> " + receipt.getVehicleType() + "</p>\n" +
+                    "        <p><strong>Owner Name:</strong> " + receipt.getOwnerName() + "</p>\n" +
+                    "        <p><strong>Phone Number:</strong> " + receipt.getPhoneNumber() + "</p>\n" +
+                    "        <p><strong>Total Duration:</strong> " + receipt.getTotalDuration() + " minutes</p>\n" +
+                    "        <p><strong>Amount:</strong> Rs " + receipt.getAmount() + "</p>\n" +
+                    "        <p><strong>Receipt Date:</strong> " + formattedDate + "</p>\n" +
+                    "    </div>\n" +
+                    "    <div class='barcode'>\n" +
+                    "        <img src='https://barcode.tec-it.com/barcode.ashx?data=" + receipt.getRegistrationNumber() + "&amp;code=Code128&amp;translate-esc=false' alt='Barcode' />\n" +
+                    "    </div>\n" +
+                    "</div>\n" +
+                    "</body>\n" +
+                    "</html>";
+            // Generate PDF
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+            PdfRendererBuilder builder = new PdfRendererBuilder();
+
+            // Set the page size for the thermal receipt
+            float pageWidth = 90.5f;
+            float pageHeight = 100f;  // Adjust height as needed for content
+
+            builder.useDefaultPageSize(pageWidth, pageHeight, PdfRendererBuilder.PageSizeUnits.MM);
+
+            builder.withHtmlContent(htmlContent, null);
+            builder.toStream(byteArrayOutputStream);
+            builder.run();
+
+            return new ByteArrayInputStream(byteArrayOutputStream.toByteArray());
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private String formatDateTime(String receiptDate) {
+
+        // Parse the receipt date (ISO 8601 format with milliseconds)
+        DateTimeFormatter inputFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSS");
+        LocalDateTime dateTime = LocalDateTime.parse(receiptDate, inputFormatter);
+
+        // Format the date into DD/MM/YYYY HH:mm:ss
+        DateTimeFormatter outputFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+        return dateTime.format(outputFormatter);
+
+
+    }
+}
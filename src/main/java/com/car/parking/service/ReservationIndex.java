@@ -0,0 +1,134 @@
+package com.car.parking.service;
+
+import com.car.parking.model.Reservation;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of the reservations that hold a slot (ACTIVE and FULFILLED): one interval tree per slot,
+ * keyed by start time. It is a fast path in front of the database exclusion constraint, not a replacement for it.
+ * Intervals on a slot never overlap, so both start and end times are sorted and a conflict check is a single
+ * floor lookup plus a walk over the (few) intervals that start inside the window: O(log n) per slot.
+ */
+@Component
+public class ReservationIndex {
+
+    private final Map<String, NavigableMap<LocalDateTime, Interval>> slots = new ConcurrentHashMap<>();
+
+    // Adds the reservation unless it overlaps an existing one on the same slot
+    public boolean add(Reservation reservation) {
+        NavigableMap<LocalDateTime, Interval> intervals =
+                slots.computeIfAbsent(key(reservation.getZone(), reservation.getSlot()), k -> new TreeMap<>());
+        synchronized (intervals) {
+            if (findConflict(intervals, reservation.getStartTime(), reservation.getEndTime(), null) != null) {
+                return false;
+            }
+            intervals.put(reservation.getStartTime(), new Interval(reservation.getRegistrationNumber(),
+                    reservation.getStartTime(), reservation.getEndTime()));
+            return true;
+        }
+    }
+
+    // Adds a reservation read back from the database; already indexed windows (e.g. booked on this node) are a no-op
+    public boolean restore(Reservation reservation) {
+        NavigableMap<LocalDateTime, Interval> intervals =
+                slots.computeIfAbsent(key(reservation.getZone(), reservation.getSlot()), k -> new TreeMap<>());
+        synchronized (intervals) {
+            Interval existing = intervals.get(reservation.getStartTime());
+            if (existing != null && existing.end().equals(reservation.getEndTime())
+                    && Objects.equals(existing.registrationNumber(), reservation.getRegistrationNumber())) {
+                return true;
+            }
+        }
+        return add(reservation);
+    }
+
+    // Matches on start time and holder only, so a reservation is still found after its end time changed
+    public void remove(Reservation reservation) {
+        NavigableMap<LocalDateTime, Interval> intervals = slots.get(key(reservation.getZone(), reservation.getSlot()));
+        if (intervals == null) {
+            return;
+        }
+        synchronized (intervals) {
+            Interval interval = intervals.get(reservation.getStartTime());
+            if (interval != null && Objects.equals(interval.registrationNumber(), reservation.getRegistrationNumber())) {
+                intervals.remove(reservation.getStartTime());
+            }
+        }
+    }
+
+    /**
+     * Returns the first reservation on the slot overlapping [start, end) that is not held by
+     * {@code ignoredRegistrationNumber}, or null if there is none.
+     */
+    public Interval findConflict(String zone, String slot, LocalDateTime start, LocalDateTime end,
+                                 String ignoredRegistrationNumber) {
+        NavigableMap<LocalDateTime, Interval> intervals = slots.get(key(zone, slot));
+        if (intervals == null) {
+            return null;
+        }
+        synchronized (intervals) {
+            return findConflict(intervals, start, end, ignoredRegistrationNumber);
+        }
+    }
+
+    // Finds the reservation held by the vehicle on the slot that overlaps [start, end), or null
+    public Interval findOwn(String zone, String slot, LocalDateTime start, LocalDateTime end, String registrationNumber) {
+        NavigableMap<LocalDateTime, Interval> intervals = slots.get(key(zone, slot));
+        if (intervals == null) {
+            return null;
+        }
+        synchronized (intervals) {
+            for (Interval interval : overlapping(intervals, start, end)) {
+                if (registrationNumber.equals(interval.registrationNumber())) {
+                    return interval;
+                }
+            }
+            return null;
+        }
+    }
+
+    // Drops intervals that ended before the given time; ends are sorted, so only the head of each tree is touched
+    public void pruneEndedBefore(LocalDateTime time) {
+        for (NavigableMap<LocalDateTime, Interval> intervals : slots.values()) {
+            synchronized (intervals) {
+                Iterator<Interval> iterator = intervals.values().iterator();
+                while (iterator.hasNext() && !iterator.next().end().isAfter(time)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private static Interval findConflict(NavigableMap<LocalDateTime, Interval> intervals, LocalDateTime start,
+                                         LocalDateTime end, String ignoredRegistrationNumber) {
+        for (Interval interval : overlapping(intervals, start, end)) {
+            if (ignoredRegistrationNumber == null || !ignoredRegistrationNumber.equals(interval.registrationNumber())) {
+                return interval;
+            }
+        }
+        return null;
+    }
+
+    // Lazily walks the intervals overlapping [start, end) in start order
+    private static Iterable<Interval> overlapping(NavigableMap<LocalDateTime, Interval> intervals,
+                                                  LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, Interval> floor = intervals.floorEntry(start);
+        LocalDateTime from = floor != null && floor.getValue().end().isAfter(start) ? floor.getKey() : start;
+        return intervals.subMap(from, true, end, false).values();
+    }
+
+    private static String key(String zone, String slot) {
+        return zone + ":" + slot;
+    }
+
+    public record Interval(String registrationNumber, LocalDateTime start, LocalDateTime end) {
+    }
+}
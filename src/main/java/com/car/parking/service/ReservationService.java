@@ -0,0 +1,264 @@
+package com.car.parking.service;
+
+import com.car.parking.model.ParkingLot;
+import com.car.parking.model.Reservation;
+import com.car.parking.model.ReservationRequest;
+import com.car.parking.model.ReservationStatus;
+import com.car.parking.repository.ParkingLotRepository;
+import com.car.parking.repository.ReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Advance reservations. The database exclusion constraint on reservations is what guarantees that windows on a
+ * slot never overlap, across all nodes; the {@link ReservationIndex} answers the hot-path questions (walk-in
+ * checks, free-slot search) and rejects obvious conflicts without a round trip. On every maintenance run each
+ * node re-reads the reservations changed since its last sync, whichever node changed them: new bookings are
+ * added to its index, and cancelled, expired or ended ones are removed.
+ * <p>
+ * A holder claims a reservation by parking on its slot any time from {@code walk-in-horizon} before its start
+ * until its end. The same window decides whether a walk-in is turned away, so a vehicle is never let in early
+ * without its reservation being fulfilled.
+ */
+@Service
+@Slf4j
+public class ReservationService implements SmartInitializingSingleton {
+
+    // Reservations in these states hold their window (a fulfilled reservation's holder is parked on the slot)
+    private static final Set<ReservationStatus> HOLDING_STATUSES =
+            EnumSet.of(ReservationStatus.ACTIVE, ReservationStatus.FULFILLED);
+
+    // Re-read this far behind the last sync, for clock skew between nodes and writes that commit after a sync
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(5);
+
+    private final ReservationRepository reservationRepository;
+    private final ParkingLotRepository parkingLotRepository;
+    private final ReservationIndex reservationIndex;
+    private final Duration noShowGrace;
+    private final Duration walkInHorizon;
+
+    private LocalDateTime lastSyncedAt;
+    private volatile List<SlotRef> slotLayout = List.of();
+
+    public ReservationService(ReservationRepository reservationRepository,
+                              ParkingLotRepository parkingLotRepository,
+                              ReservationIndex reservationIndex,
+                              @Value("${parking.reservations.no-show-grace:PT15M}") Duration noShowGrace,
+                              @Value("${parking.reservations.walk-in-horizon:PT2H}") Duration walkInHorizon) {
+        this.reservationRepository = reservationRepository;
+        this.parkingLotRepository = parkingLotRepository;
+        this.reservationIndex = reservationIndex;
+        this.noShowGrace = noShowGrace;
+        this.walkInHorizon = walkInHorizon;
+    }
+
+    // Runs once all singletons exist, before the web server starts taking requests
+    @Override
+    public void afterSingletonsInstantiated() {
+        int loaded = syncIndex();
+        log.info("Loaded {} reservations into the reservation index", loaded);
+    }
+
+    public Reservation reserve(ReservationRequest request) {
+        LocalDateTime start = request.getStartTime();
+        LocalDateTime end = request.getEndTime();
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IllegalArgumentException("Reservation needs a start time before its end time.");
+        }
+        if (!end.isAfter(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Reservation window has already ended.");
+        }
+        if ((request.getZone() == null) != (request.getSlot() == null)) {
+            throw new IllegalArgumentException("Give both zone and slot, or neither to pick any free slot.");
+        }
+
+        ParkingLot parkingLot;
+        if (request.getZone() == null) {
+            parkingLot = findFreeSlot(start, end);
+            if (parkingLot == null) {
+                throw new IllegalStateException("No parking slot is free for the requested window.");
+            }
+        } else {
+            parkingLot = parkingLotRepository.findByZoneAndSlot(request.getZone(), request.getSlot());
+            if (parkingLot == null) {
+                throw new IllegalArgumentException("Parking slot does not exist.");
+            }
+        }
+
+        Reservation reservation = new Reservation();
+        reservation.setRegistrationNumber(request.getRegistrationNumber());
+        reservation.setOwnerName(request.getOwnerName());
+        reservation.setPhoneNumber(request.getPhoneNumber());
+        reservation.setZone(parkingLot.getZone());
+        reservation.setSlot(parkingLot.getSlot());
+        reservation.setStartTime(start);
+        reservation.setEndTime(end);
+        reservation.setStatus(ReservationStatus.ACTIVE);
+
+        String conflict = "Parking slot " + parkingLot.getSlot() + " is already reserved for the requested window.";
+        if (isOccupiedForWindow(parkingLot, start, reservation.getRegistrationNumber())
+                || !reservationIndex.add(reservation)) {
+            throw new IllegalStateException(conflict);
+        }
+        // The index only knows this node's view; the exclusion constraint has the final word
+        try {
+            return reservationRepository.save(reservation);
+        } catch (DataIntegrityViolationException e) {
+            reservationIndex.remove(reservation);
+            throw new IllegalStateException(conflict);
+        } catch (RuntimeException e) {
+            reservationIndex.remove(reservation);
+            throw e;
+        }
+    }
+
+    public String cancel(Long id) {
+        Reservation reservation = reservationRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Reservation not found!"));
+        if (reservation.getStatus() != ReservationStatus.ACTIVE) {
+            throw new IllegalStateException("Reservation is already " + reservation.getStatus().name() + ".");
+        }
+        reservation.setStatus(ReservationStatus.CANCELLED);
+        reservationRepository.save(reservation);
+        reservationIndex.remove(reservation);
+        return "Reservation cancelled.";
+    }
+
+    /**
+     * Returns the first slot (in zone and slot order) with no reservation overlapping [start, end), or null.
+     * Each slot is one O(log n) index lookup, so the cost is O(slots * log n) for n reservations per slot.
+     * Only the zone/slot layout is cached; current occupancy is only read when the window has already started,
+     * and the chosen slot is read fresh so its status and vehicle are current.
+     */
+    public ParkingLot findFreeSlot(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IllegalArgumentException("Window needs a start time before its end time.");
+        }
+        Set<String> occupied = start.isAfter(LocalDateTime.now()) ? Set.of()
+                : parkingLotRepository.findByVehicleRegistrationNumberIsNotNull().stream()
+                .map(ParkingLot::getSlot)
+                .collect(Collectors.toSet());
+        return getSlotLayout().stream()
+                .filter(ref -> !occupied.contains(ref.slot()))
+                .filter(ref -> reservationIndex.findConflict(ref.zone(), ref.slot(), start, end, null) == null)
+                .findFirst()
+                .map(ref -> parkingLotRepository.findByZoneAndSlot(ref.zone(), ref.slot()))
+                .orElse(null);
+    }
+
+    // A walk-in may not take a slot another vehicle has reserved within the claim window
+    public boolean isHeldForAnother(String zone, String slot, String registrationNumber, LocalDateTime now) {
+        return reservationIndex.findConflict(zone, slot, now, claimWindowEnd(now), registrationNumber) != null;
+    }
+
+    // Marks the vehicle's own reservation on this slot as fulfilled, using the same claim window as isHeldForAnother
+    public void fulfill(String registrationNumber, String zone, String slot, LocalDateTime now) {
+        ReservationIndex.Interval own = reservationIndex.findOwn(zone, slot, now, claimWindowEnd(now), registrationNumber);
+        if (own == null) {
+            return;
+        }
+        Reservation reservation = reservationRepository.findByZoneAndSlotAndStartTimeAndStatus(
+                zone, slot, own.start(), ReservationStatus.ACTIVE);
+        if (reservation != null) {
+            // Stays in the index: a fulfilled reservation holds its window until release, as it does after a reload
+            reservation.setStatus(ReservationStatus.FULFILLED);
+            reservationRepository.save(reservation);
+        }
+    }
+
+    // Ends the holder's fulfilled reservation on this slot once they pay and leave, so the rest of the window is free
+    public void release(String registrationNumber, String zone, String slot, LocalDateTime now) {
+        Reservation reservation = reservationRepository.findByZoneAndSlotAndRegistrationNumberAndStatusAndEndTimeAfter(
+                zone, slot, registrationNumber, ReservationStatus.FULFILLED, now);
+        if (reservation == null) {
+            return;
+        }
+        // Leaving before the window started leaves it empty, which holds nothing
+        reservation.setEndTime(now.isAfter(reservation.getStartTime()) ? now : reservation.getStartTime());
+        reservationRepository.save(reservation);
+        reservationIndex.remove(reservation);
+    }
+
+    // Pull in reservations changed on other nodes, expire no-shows and drop ended intervals
+    @Scheduled(fixedDelayString = "${parking.reservations.expiry-interval:PT1M}")
+    public void maintainIndex() {
+        syncIndex();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Reservation> noShows =
+                reservationRepository.findByStatusAndStartTimeBefore(ReservationStatus.ACTIVE, now.minus(noShowGrace));
+        for (Reservation reservation : noShows) {
+            reservation.setStatus(ReservationStatus.EXPIRED);
+            reservationIndex.remove(reservation);
+        }
+        reservationRepository.saveAll(noShows);
+        reservationIndex.pruneEndedBefore(now);
+        if (!noShows.isEmpty()) {
+            log.info("Expired {} no-show reservations", noShows.size());
+        }
+    }
+
+    /**
+     * The first run loads every reservation that holds its window; later runs re-read the rows written since the
+     * last one, oldest change first, and add or remove each according to its current status. Both are idempotent,
+     * so re-reading a row inside the overlap is harmless. Returns how many reservations were read.
+     */
+    private synchronized int syncIndex() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Reservation> reservations = lastSyncedAt == null
+                ? reservationRepository.findByStatusInAndEndTimeAfter(HOLDING_STATUSES, now)
+                : reservationRepository.findByUpdatedAtAfterOrderByUpdatedAt(lastSyncedAt.minus(SYNC_OVERLAP));
+        for (Reservation reservation : reservations) {
+            if (!holdsWindow(reservation, now)) {
+                reservationIndex.remove(reservation);
+            } else if (!reservationIndex.restore(reservation)) {
+                // The database constraint rules out real overlaps, so the local window is one not yet synced away
+                log.warn("Reservation {} overlaps a locally indexed window on slot {}", reservation.getId(), reservation.getSlot());
+            }
+        }
+        lastSyncedAt = now;
+        return reservations.size();
+    }
+
+    private List<SlotRef> getSlotLayout() {
+        List<SlotRef> layout = slotLayout;
+        if (layout.isEmpty()) {
+            // Slots are created once by initializeParking, so the layout only needs loading until it exists
+            layout = parkingLotRepository.findAllInSlotOrder().stream()
+                    .map(lot -> new SlotRef(lot.getZone(), lot.getSlot()))
+                    .toList();
+            slotLayout = layout;
+        }
+        return layout;
+    }
+
+    private static boolean holdsWindow(Reservation reservation, LocalDateTime now) {
+        return HOLDING_STATUSES.contains(reservation.getStatus()) && reservation.getEndTime().isAfter(now)
+                && reservation.getEndTime().isAfter(reservation.getStartTime());
+    }
+
+    private LocalDateTime claimWindowEnd(LocalDateTime now) {
+        return now.plus(walkInHorizon);
+    }
+
+    // A window that has already started cannot go to a slot someone else is parked on right now
+    private boolean isOccupiedForWindow(ParkingLot parkingLot, LocalDateTime start, String registrationNumber) {
+        return !start.isAfter(LocalDateTime.now()) && parkingLot.getVehicleRegistrationNumber() != null
+                && !parkingLot.getVehicleRegistrationNumber().equals(registrationNumber);
+    }
+
+    // Zone and slot only: occupancy changes all the time and is always read from the database
+    private record SlotRef(String zone, String slot) {
+    }
+}
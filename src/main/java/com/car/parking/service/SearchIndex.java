@@ -0,0 +1,452 @@
+package com.car.parking.service;
+
+import com.car.parking.model.BillingEvent;
+import com.car.parking.model.History;
+import com.car.parking.model.ParkingLot;
+import com.car.parking.model.PaymentStatus;
+import com.car.parking.model.SearchResult;
+import com.car.parking.model.Vehicle;
+import com.car.parking.repository.ParkingLotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory trigram index over registration numbers, phone numbers and owner names of parked vehicles and
+ * recent history. One entry per distinct (plate, phone, name), so repeat visits do not grow the index.
+ * <p>
+ * Values are normalized to upper-case letters and digits and padded with "$$", so the trigrams of a value cover
+ * both prefix queries of any length and substring queries. Longer queries also match fuzzily: an entry qualifies
+ * when it shares at least half of the query's trigrams, and candidates are only drawn from the rarest posting
+ * lists (any qualifying entry must appear in one of them), so common trigrams do not dominate query time.
+ * <p>
+ * Requests handled on this node update the index through the hooks below; bills and parked vehicles recorded by
+ * other nodes are pulled in by a periodic {@link #sync()}.
+ */
+@Component
+@Slf4j
+public class SearchIndex {
+
+    private static final String PADDING = "$$";
+    private static final double MIN_FUZZY_MATCH = 0.5;
+    private static final int LOAD_FETCH_SIZE = 1000;
+    private static final double PREFIX_SCORE = 3;
+    // Ledger ids are taken before commit, so a row can become visible after a higher id; sync re-reads this far back
+    private static final long LEDGER_ID_OVERLAP = 100;
+
+    // Best first: score, then vehicles in the lot, then most recently seen
+    private static final Comparator<Hit> RANKING = Comparator.comparingDouble(Hit::score).reversed()
+            .thenComparing((Hit hit) -> hit.entry().parked, Comparator.reverseOrder())
+            .thenComparing((Hit hit) -> hit.entry().lastSeen, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private static final String LOAD_QUERY =
+            "select registration_number, owner_name, phone_number, vehicle_type, exit_time, paid_time "
+                    + "from billing_history where exit_time >= ? order by id";
+
+    // The bill behind each ledger event (EXIT or PAYMENT) after the given id
+    private static final String SYNC_QUERY =
+            "select h.registration_number, h.owner_name, h.phone_number, h.vehicle_type, h.exit_time, h.paid_time, l.id as ledger_id "
+                    + "from billing_ledger l join billing_history h on h.id = coalesce(l.bill_id, l.id) "
+                    + "where l.id > ? order by l.id";
+
+    private final ParkingLotRepository parkingLotRepository;
+    private final VehicleCache vehicleCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration historyWindow;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<String, Integer> entryIdsByKey = new HashMap<>();
+    private final Map<String, IntList> postings = new HashMap<>();
+    private int removed;
+    private volatile long lastLedgerId = -1;  // -1 until load has started
+
+    public SearchIndex(ParkingLotRepository parkingLotRepository,
+                       VehicleCache vehicleCache,
+                       DataSource dataSource,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${parking.search.history-window:P90D}") Duration historyWindow) {
+        this.parkingLotRepository = parkingLotRepository;
+        this.vehicleCache = vehicleCache;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(LOAD_FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.historyWindow = historyWindow;
+    }
+
+    /**
+     * Builds the index from recent history, then the vehicles currently in the lot. This runs while live traffic
+     * already calls the hooks below, so every update carries the time of its event and is ignored if the entry
+     * already reflects a newer one: a history row read before a concurrent payment cannot turn it back to UNPAID.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDateTime since = LocalDateTime.now().minus(historyWindow);
+        Long maxLedgerId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from billing_ledger", Long.class);
+        lastLedgerId = maxLedgerId != null ? maxLedgerId : 0;
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(LOAD_QUERY, this::applyBill, since));
+        loadParked();
+        log.info("Loaded {} entries into the search index", entryIdsByKey.size());
+    }
+
+    /**
+     * Pulls in what other nodes recorded since the last run: the bill behind every newer ledger event, and the
+     * vehicles currently parked. Rows are re-read a little way behind the last ledger id seen; applying a row twice
+     * changes nothing, since every update is ordered by its event time.
+     */
+    @Scheduled(fixedDelayString = "${parking.search.sync-interval:PT1M}")
+    public synchronized void sync() {
+        long since = lastLedgerId;
+        if (since < 0) {
+            return;  // Not loaded yet; load covers everything up to its start
+        }
+        long[] maxSeen = {since};
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(SYNC_QUERY, rs -> {
+            applyBill(rs);
+            maxSeen[0] = Math.max(maxSeen[0], rs.getLong("ledger_id"));
+        }, Math.max(0, since - LEDGER_ID_OVERLAP)));
+        lastLedgerId = maxSeen[0];
+        loadParked();
+    }
+
+    // A bill row: unpaid after the exit, paid (and out of the lot) once settled
+    private void applyBill(ResultSet rs) throws SQLException {
+        LocalDateTime exitTime = rs.getObject("exit_time", LocalDateTime.class);
+        LocalDateTime paidTime = rs.getObject("paid_time", LocalDateTime.class);
+        upsert(rs.getString("registration_number"), rs.getString("owner_name"), rs.getString("phone_number"),
+                rs.getString("vehicle_type"), paidTime != null ? paidTime : exitTime, entry -> {
+                    entry.lastStatus = paidTime != null ? PaymentStatus.PAID : PaymentStatus.UNPAID;
+                    entry.seenAt(exitTime);
+                    if (paidTime != null) {
+                        entry.parked = false;
+                        entry.zone = null;
+                        entry.slot = null;
+                    }
+                });
+    }
+
+    private void loadParked() {
+        for (ParkingLot parkingLot : parkingLotRepository.findByVehicleRegistrationNumberIsNotNull()) {
+            vehicleCache.findById(parkingLot.getVehicleRegistrationNumber())
+                    .ifPresent(vehicle -> onParked(vehicle, parkingLot.getZone(), parkingLot.getSlot()));
+        }
+    }
+
+    public void onParked(Vehicle vehicle, String zone, String slot) {
+        upsert(vehicle.getRegistrationNumber(), vehicle.getOwnerName(), vehicle.getPhoneNumber(), vehicle.getVehicleType(),
+                vehicle.getEntryTime(), entry -> {
+                    entry.parked = true;
+                    entry.zone = zone;
+                    entry.slot = slot;
+                    entry.seenAt(vehicle.getEntryTime());
+                });
+    }
+
+    public void onExit(BillingEvent exitEvent) {
+        upsert(exitEvent.getRegistrationNumber(), exitEvent.getOwnerName(), exitEvent.getPhoneNumber(),
+                exitEvent.getVehicleType(), exitEvent.getExitTime(), entry -> {
+                    entry.lastStatus = PaymentStatus.UNPAID;
+                    entry.seenAt(exitEvent.getExitTime());
+                });
+    }
+
+    public void onPaid(History history, LocalDateTime paidTime) {
+        upsert(history.getRegistrationNumber(), history.getOwnerName(), history.getPhoneNumber(),
+                history.getVehicleType(), paidTime, entry -> {
+                    entry.parked = false;
+                    entry.zone = null;
+                    entry.slot = null;
+                    entry.lastStatus = PaymentStatus.PAID;
+                });
+    }
+
+    // Returns at most limit results, best first; only the top limit hits are ever materialized
+    public List<SearchResult> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // Short queries can only be prefixes; longer ones are matched on substring trigrams
+        boolean prefixOnly = normalized.length() < 3;
+        Set<String> grams = prefixOnly ? trigrams(PADDING + normalized) : trigrams(normalized);
+
+        lock.readLock().lock();
+        try {
+            List<IntList> lists = new ArrayList<>(grams.size());
+            for (String gram : grams) {
+                lists.add(postings.getOrDefault(gram, IntList.EMPTY));
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            List<Hit> hits = prefixOnly ? searchPrefix(normalized, lists.get(0), limit) : searchFuzzy(normalized, lists, limit);
+            hits.sort(RANKING);
+            List<SearchResult> results = new ArrayList<>(hits.size());
+            for (Hit hit : hits) {
+                results.add(hit.entry().toResult(hit.score()));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A 1-2 character query is an anchored prefix, so every real match scores the same. Walks the shortest posting
+     * list from the most recently indexed entry backwards and stops as soon as limit matches are found.
+     */
+    private List<Hit> searchPrefix(String normalized, IntList shortest, int limit) {
+        List<Hit> hits = new ArrayList<>(Math.min(limit, shortest.size));
+        for (int i = shortest.size - 1; i >= 0 && hits.size() < limit; i--) {
+            Entry entry = entries.get(shortest.values[i]);
+            if (entry != null && entry.hasPrefix(normalized)) {
+                hits.add(new Hit(entry, PREFIX_SCORE));
+            }
+        }
+        return hits;
+    }
+
+    // Scores candidates from the rarest lists and keeps the best limit of them in a bounded heap
+    private List<Hit> searchFuzzy(String normalized, List<IntList> lists, int limit) {
+        int required = Math.max(1, (int) Math.ceil(lists.size() * MIN_FUZZY_MATCH));
+        int candidateLists = lists.size() - required + 1;
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        for (int l = 0; l < candidateLists; l++) {
+            IntList list = lists.get(l);
+            for (int i = 0; i < list.size; i++) {
+                int id = list.values[i];
+                Entry entry = entries.get(id);
+                if (entry == null || inAnyOf(lists, l, id)) {
+                    continue;  // Removed, or already scored from an earlier list
+                }
+                int matched = 0;
+                for (IntList other : lists) {
+                    if (other.contains(id)) {
+                        matched++;
+                    }
+                }
+                if (matched < required) {
+                    continue;
+                }
+                double score = (double) matched / lists.size();
+                if (entry.hasPrefix(normalized)) {
+                    score += 2;
+                } else if (entry.hasSubstring(normalized)) {
+                    score += 1;
+                }
+                top.add(new Hit(entry, score));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+        return new ArrayList<>(top);
+    }
+
+    private static boolean inAnyOf(List<IntList> lists, int before, int id) {
+        for (int l = 0; l < before; l++) {
+            if (lists.get(l).contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Drop history entries that fell out of the window; compact once most of the index is dead
+    @Scheduled(fixedDelayString = "${parking.search.prune-interval:PT1H}")
+    public void prune() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(historyWindow);
+        lock.writeLock().lock();
+        try {
+            for (int id = 0; id < entries.size(); id++) {
+                Entry entry = entries.get(id);
+                if (entry != null && !entry.parked && entry.lastSeen != null && entry.lastSeen.isBefore(cutoff)) {
+                    entries.set(id, null);
+                    entryIdsByKey.remove(entry.key);
+                    removed++;
+                }
+            }
+            if (removed > entries.size() / 2) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Applies the update unless the entry already reflects an event newer than eventTime
+    private void upsert(String registrationNumber, String ownerName, String phoneNumber, String vehicleType,
+                        LocalDateTime eventTime, Consumer<Entry> update) {
+        String[] values = {normalize(registrationNumber), normalize(phoneNumber), normalize(ownerName)};
+        String key = String.join("|", values);
+        lock.writeLock().lock();
+        try {
+            Integer id = entryIdsByKey.get(key);
+            Entry entry;
+            if (id == null) {
+                entry = new Entry(key, values, registrationNumber, ownerName, phoneNumber, vehicleType);
+                add(entry);
+            } else {
+                entry = entries.get(id);
+            }
+            if (eventTime != null && entry.stateAt != null && eventTime.isBefore(entry.stateAt)) {
+                return;
+            }
+            update.accept(entry);
+            if (eventTime != null) {
+                entry.stateAt = eventTime;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ids only grow, so every posting list stays sorted
+    private void add(Entry entry) {
+        int id = entries.size();
+        entries.add(entry);
+        entryIdsByKey.put(entry.key, id);
+        Set<String> grams = new HashSet<>();
+        for (String value : entry.values) {
+            if (!value.isEmpty()) {
+                grams.addAll(trigrams(PADDING + value));
+            }
+        }
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, g -> new IntList()).add(id);
+        }
+    }
+
+    private void compact() {
+        List<Entry> live = entries.stream().filter(entry -> entry != null).toList();
+        entries.clear();
+        entryIdsByKey.clear();
+        postings.clear();
+        removed = 0;
+        live.forEach(this::add);
+    }
+
+    private static Set<String> trigrams(String value) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= value.length(); i++) {
+            grams.add(value.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    // Upper-case letters and digits only, so "mh 12-ab 1234" matches "MH12AB1234"
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toUpperCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static class Entry {
+        private final String key;
+        private final String[] values;  // Normalized registration number, phone number and owner name
+        private final String registrationNumber;
+        private final String ownerName;
+        private final String phoneNumber;
+        private final String vehicleType;
+        private boolean parked;
+        private String zone;
+        private String slot;
+        private LocalDateTime lastSeen;
+        private PaymentStatus lastStatus;
+        private LocalDateTime stateAt;  // Time of the event behind parked/lastStatus
+
+        Entry(String key, String[] values, String registrationNumber, String ownerName, String phoneNumber,
+              String vehicleType) {
+            this.key = key;
+            this.values = values;
+            this.registrationNumber = registrationNumber;
+            this.ownerName = ownerName;
+            this.phoneNumber = phoneNumber;
+            this.vehicleType = vehicleType;
+        }
+
+        void seenAt(LocalDateTime time) {
+            if (time != null && (lastSeen == null || time.isAfter(lastSeen))) {
+                lastSeen = time;
+            }
+        }
+
+        boolean hasPrefix(String query) {
+            return Arrays.stream(values).anyMatch(value -> value.startsWith(query));
+        }
+
+        boolean hasSubstring(String query) {
+            return Arrays.stream(values).anyMatch(value -> value.contains(query));
+        }
+
+        SearchResult toResult(double score) {
+            SearchResult result = new SearchResult();
+            result.setRegistrationNumber(registrationNumber);
+            result.setOwnerName(ownerName);
+            result.setPhoneNumber(phoneNumber);
+            result.setVehicleType(vehicleType);
+            result.setParked(parked);
+            result.setZone(zone);
+            result.setSlot(slot);
+            result.setLastSeen(lastSeen);
+            result.setLastStatus(lastStatus);
+            result.setScore(score);
+            return result;
+        }
+    }
+
+    private record Hit(Entry entry, double score) {
+    }
+
+    // Sorted, append-only list of entry ids
+    private static class IntList {
+        private static final IntList EMPTY = new IntList();
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        boolean contains(int value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.car.parking.service;
+
+import com.car.parking.model.Vehicle;
+import com.car.parking.repository.VehicleRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Size-bounded, read-through cache in front of {@link VehicleRepository}, keyed by registration number.
+ * Entries expire once they have not been read for the configured TTL (every hit renews it) and the least recently
+ * used entry is evicted once the cache is full. Saves are written through to the database and then cached, so
+ * vehicles currently in the lot, which the listings keep reading, are served without a database round trip.
+ * The cache keeps its own copy of each vehicle and hands out fresh copies, so callers may modify what they get
+ * back without affecting other threads.
+ */
+@Component
+public class VehicleCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "vehicles";
+
+    private final VehicleRepository vehicleRepository;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+    private final Map<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public VehicleCache(VehicleRepository vehicleRepository,
+                        @Value("${parking.vehicle-cache.max-size:10000}") int maxSize,
+                        @Value("${parking.vehicle-cache.ttl:PT30M}") Duration ttl) {
+        this(vehicleRepository, maxSize, ttl, System::nanoTime);
+    }
+
+    // The ticker stands in for System.nanoTime, so tests can move time forward
+    VehicleCache(VehicleRepository vehicleRepository, int maxSize, Duration ttl, LongSupplier ticker) {
+        this.vehicleRepository = vehicleRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+        // Access-ordered map, so the eldest entry is always the least recently used one
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Optional<Vehicle> findById(String registrationNumber) {
+        Vehicle cached = getIfPresent(registrationNumber);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(copyOf(cached));
+        }
+        misses.increment();
+        Optional<Vehicle> loaded = vehicleRepository.findById(registrationNumber);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    public boolean existsById(String registrationNumber) {
+        return findById(registrationNumber).isPresent();
+    }
+
+    public Vehicle save(Vehicle vehicle) {
+        Vehicle saved = vehicleRepository.save(vehicle);
+        put(saved);
+        return saved;
+    }
+
+    private Vehicle getIfPresent(String registrationNumber) {
+        synchronized (entries) {
+            Entry entry = entries.get(registrationNumber);
+            if (entry == null) {
+                return null;
+            }
+            long now = ticker.getAsLong();
+            if (now - entry.lastAccess() > ttlNanos) {
+                entries.remove(registrationNumber);
+                evictions.increment();
+                return null;
+            }
+            // Expire after access: an entry that keeps being read stays cached
+            entries.put(registrationNumber, new Entry(entry.vehicle(), now));
+            return entry.vehicle();
+        }
+    }
+
+    private void put(Vehicle vehicle) {
+        synchronized (entries) {
+            entries.put(vehicle.getRegistrationNumber(), new Entry(copyOf(vehicle), ticker.getAsLong()));
+        }
+    }
+
+    private static Vehicle copyOf(Vehicle vehicle) {
+        Vehicle copy = new Vehicle();
+        copy.setRegistrationNumber(vehicle.getRegistrationNumber());
+        copy.setOwnerName(vehicle.getOwnerName());
+        copy.setPhoneNumber(vehicle.getPhoneNumber());
+        copy.setVehicleType(vehicle.getVehicleType());
+        copy.setEntryTime(vehicle.getEntryTime());
+        return copy;
+    }
+
+    private int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tag("cache", CACHE_NAME).tag("result", "hit")
+                .description("Vehicle lookups served from the cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tag("cache", CACHE_NAME).tag("result", "miss")
+                .description("Vehicle lookups that went to the database")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tag("cache", CACHE_NAME)
+                .register(registry);
+        Gauge.builder("cache.size", this, VehicleCache::size)
+                .tag("cache", CACHE_NAME)
+                .register(registry);
+    }
+
+    private record Entry(Vehicle vehicle, long lastAccess) {
+    }
+}
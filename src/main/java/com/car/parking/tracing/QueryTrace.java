@@ -0,0 +1,15 @@
+package com.car.parking.tracing;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One traced SQL statement: what ran, with which bind parameters, from which route and how long it took.
+ */
+public record QueryTrace(Instant timestamp,
+                         String route,
+                         String sql,
+                         List<String> parameters,
+                         long durationMicros,
+                         boolean slow) {
+}
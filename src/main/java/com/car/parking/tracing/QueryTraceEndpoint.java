@@ -0,0 +1,30 @@
+package com.car.parking.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Admin view of the query trace buffer at {@code /actuator/querytraces}.
+ */
+@Component
+@Endpoint(id = "querytraces")
+@RequiredArgsConstructor
+public class QueryTraceEndpoint {
+
+    private final QueryTracer queryTracer;
+
+    @ReadOperation
+    public List<QueryTrace> traces() {
+        return queryTracer.getTraces();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        queryTracer.clear();
+    }
+}
@@ -0,0 +1,92 @@
+package com.car.parking.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which statements are worth keeping and stores them in a bounded in-memory ring buffer.
+ * A statement is kept when it exceeds the slow-query threshold, or when it runs inside a sampled request.
+ * Everything else costs one clock read and a comparison.
+ */
+@Component
+public class QueryTracer {
+
+    private static final ThreadLocal<RequestTrace> CURRENT_REQUEST = new ThreadLocal<>();
+
+    private final long slowThresholdNanos;
+    private final double sampleRate;
+    private final boolean maskStringParameters;
+    private final QueryTrace[] buffer;
+    private long next;
+
+    public QueryTracer(@Value("${parking.tracing.slow-query-threshold:PT0.1S}") Duration slowThreshold,
+                       @Value("${parking.tracing.sample-rate:0.01}") double sampleRate,
+                       @Value("${parking.tracing.buffer-size:1000}") int bufferSize,
+                       @Value("${parking.tracing.mask-string-parameters:true}") boolean maskStringParameters) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.sampleRate = sampleRate;
+        this.buffer = new QueryTrace[bufferSize];
+        this.maskStringParameters = maskStringParameters;
+    }
+
+    // Called at the start of a request; the sampling decision holds for every statement the request runs
+    public void beginRequest(String route) {
+        boolean sampled = sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        CURRENT_REQUEST.set(new RequestTrace(route, sampled));
+    }
+
+    public void endRequest() {
+        CURRENT_REQUEST.remove();
+    }
+
+    void onExecute(String sql, List<Object> parameters, long durationNanos) {
+        RequestTrace request = CURRENT_REQUEST.get();
+        boolean slow = durationNanos >= slowThresholdNanos;
+        if (!slow && (request == null || !request.sampled())) {
+            return;
+        }
+        List<String> formatted = new ArrayList<>(parameters.size());
+        for (Object parameter : parameters) {
+            formatted.add(format(parameter));
+        }
+        record(new QueryTrace(Instant.now(), request != null ? request.route() : null, sql, formatted,
+                durationNanos / 1_000, slow));
+    }
+
+    // String binds carry personal data (owner names, phone numbers), so by default only their length is kept
+    private String format(Object parameter) {
+        if (parameter instanceof String value && maskStringParameters) {
+            return "<string:" + value.length() + ">";
+        }
+        return String.valueOf(parameter);
+    }
+
+    private synchronized void record(QueryTrace trace) {
+        buffer[(int) (next++ % buffer.length)] = trace;
+    }
+
+    // Newest first
+    public synchronized List<QueryTrace> getTraces() {
+        int count = (int) Math.min(next, buffer.length);
+        List<QueryTrace> traces = new ArrayList<>(count);
+        for (long i = next - 1; i >= next - count; i--) {
+            traces.add(buffer[(int) (i % buffer.length)]);
+        }
+        return traces;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(buffer, null);
+        next = 0;
+    }
+
+    private record RequestTrace(String route, boolean sampled) {
+    }
+}
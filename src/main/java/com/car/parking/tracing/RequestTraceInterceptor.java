@@ -0,0 +1,41 @@
+package com.car.parking.tracing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Tags every statement a request runs with its controller route, e.g. {@code ParkingController.payBill (POST /api/pay)}.
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestTraceInterceptor implements AsyncHandlerInterceptor {
+
+    private final QueryTracer queryTracer;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String path = request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+        String route = handler instanceof HandlerMethod handlerMethod
+                ? handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName() + " (" + path + ")"
+                : path;
+        queryTracer.beginRequest(route);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        queryTracer.endRequest();
+    }
+
+    // Async requests (e.g. the history export) leave the worker thread here instead of in afterCompletion
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        queryTracer.endRequest();
+    }
+}
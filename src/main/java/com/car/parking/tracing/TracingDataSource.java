@@ -0,0 +1,130 @@
+package com.car.parking.tracing;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times every statement executed through the wrapped data source and hands it, with its bind parameters,
+ * to the {@link QueryTracer}.
+ */
+class TracingDataSource extends DelegatingDataSource {
+
+    private final ObjectProvider<QueryTracer> queryTracerProvider;
+    private volatile QueryTracer queryTracer;
+
+    TracingDataSource(DataSource target, ObjectProvider<QueryTracer> queryTracerProvider) {
+        super(target);
+        this.queryTracerProvider = queryTracerProvider;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private QueryTracer tracer() {
+        QueryTracer tracer = queryTracer;
+        if (tracer == null) {
+            tracer = queryTracerProvider.getObject();
+            queryTracer = tracer;
+        }
+        return tracer;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            Object result = TracingDataSource.invoke(target, method, args);
+            if (result instanceof Statement statement && method.getReturnType().isInterface()) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return Proxy.newProxyInstance(TracingDataSource.class.getClassLoader(),
+                        new Class<?>[]{method.getReturnType()}, new StatementHandler(statement, sql));
+            }
+            return result;
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String sql;
+        private final List<Object> parameters = new ArrayList<>();
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.startsWith("execute")) {
+                long start = System.nanoTime();
+                try {
+                    return TracingDataSource.invoke(target, method, args);
+                } finally {
+                    String executed = args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+                    tracer().onExecute(executed, parameters, System.nanoTime() - start);
+                }
+            } else if (name.equals("equals")) {
+                return proxy == args[0];
+            } else if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            return TracingDataSource.invoke(target, method, args);
+        }
+
+        private void bind(int index, Object value) {
+            while (parameters.size() < index) {
+                parameters.add(null);
+            }
+            parameters.set(index - 1, value);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.car.parking.tracing;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application data source in a {@link TracingDataSource}.
+ */
+@Component
+public class TracingDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<QueryTracer> queryTracerProvider;
+
+    public TracingDataSourcePostProcessor(ObjectProvider<QueryTracer> queryTracerProvider) {
+        this.queryTracerProvider = queryTracerProvider;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof TracingDataSource)) {
+            return new TracingDataSource(dataSource, queryTracerProvider);
+        }
+        return bean;
+    }
+}
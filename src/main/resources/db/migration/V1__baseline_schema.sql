@@ -0,0 +1,44 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update). Existing databases are baselined at this version.
+
+CREATE TABLE IF NOT EXISTS vehicles (
+    registration_number VARCHAR(255) PRIMARY KEY,
+    owner_name          VARCHAR(255),
+    phone_number        VARCHAR(255),
+    vehicle_type        VARCHAR(255),
+    entry_time          TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS parking_lots (
+    id                          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    zone                        VARCHAR(255),
+    slot                        VARCHAR(255),
+    booked_slot_status          VARCHAR(255),
+    vehicle_registration_number VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS history (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    registration_number VARCHAR(255),
+    vehicle_type        VARCHAR(255),
+    owner_name          VARCHAR(255),
+    phone_number        VARCHAR(255),
+    entry_time          TIMESTAMP(6),
+    exit_time           TIMESTAMP(6),
+    total_duration      BIGINT           NOT NULL,
+    amount              DOUBLE PRECISION NOT NULL,
+    status              VARCHAR(255),
+    parking_zone        VARCHAR(255),
+    parking_slot        VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS receipts (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    registration_number VARCHAR(255),
+    vehicle_type        VARCHAR(255),
+    owner_name          VARCHAR(255),
+    phone_number        VARCHAR(255),
+    total_duration      BIGINT           NOT NULL,
+    amount              DOUBLE PRECISION NOT NULL,
+    receipt_date        TIMESTAMP(6),
+    status              VARCHAR(255)
+);
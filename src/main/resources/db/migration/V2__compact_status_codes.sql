@@ -0,0 +1,25 @@
+-- Store slot and payment statuses as small integer codes (see SlotStatus and PaymentStatus).
+
+ALTER TABLE parking_lots
+    ALTER COLUMN booked_slot_status TYPE SMALLINT
+    USING CASE
+        WHEN booked_slot_status IS NULL THEN NULL
+        WHEN lower(booked_slot_status) = 'occupied' THEN 1
+        ELSE 0
+    END;
+
+ALTER TABLE history
+    ALTER COLUMN status TYPE SMALLINT
+    USING CASE
+        WHEN status IS NULL THEN NULL
+        WHEN upper(status) = 'PAID' THEN 1
+        ELSE 0
+    END;
+
+ALTER TABLE receipts
+    ALTER COLUMN status TYPE SMALLINT
+    USING CASE
+        WHEN status IS NULL THEN NULL
+        WHEN upper(status) = 'PAID' THEN 1
+        ELSE 0
+    END;
@@ -0,0 +1,24 @@
+-- Advance reservations of a slot for a future time window; status codes as in ReservationStatus.
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+CREATE TABLE reservations (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    registration_number VARCHAR(255),
+    owner_name          VARCHAR(255),
+    phone_number        VARCHAR(255),
+    zone                VARCHAR(255),
+    slot                VARCHAR(255),
+    start_time          TIMESTAMP(6),
+    end_time            TIMESTAMP(6),
+    status              SMALLINT,
+    updated_at          TIMESTAMP(6),  -- Set on every write, so other nodes can pick up status changes
+    -- Windows that still hold the slot (ACTIVE, FULFILLED) may not overlap; this is what makes bookings safe
+    -- across nodes, the in-memory ReservationIndex is only a fast path in front of it
+    CONSTRAINT excl_reservations_slot_window
+        EXCLUDE USING gist (zone WITH =, slot WITH =, tsrange(start_time, end_time) WITH &&) WHERE (status IN (0, 1))
+);
+
+CREATE INDEX idx_reservations_status_start_time ON reservations (status, start_time);
+CREATE INDEX idx_reservations_status_end_time ON reservations (status, end_time);
+CREATE INDEX idx_reservations_updated_at ON reservations (updated_at);
@@ -0,0 +1,54 @@
+-- Append-only billing ledger. history and receipts become read projections of it (see billing_history below).
+-- Event types as in BillingEventType: 0 = EXIT (the bill), 1 = PAYMENT (settles bill_id).
+
+CREATE TABLE billing_ledger (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_type          SMALLINT     NOT NULL,
+    bill_id             BIGINT REFERENCES billing_ledger (id),
+    event_time          TIMESTAMP(6) NOT NULL,
+    registration_number VARCHAR(255),
+    vehicle_type        VARCHAR(255),
+    owner_name          VARCHAR(255),
+    phone_number        VARCHAR(255),
+    entry_time          TIMESTAMP(6),
+    exit_time           TIMESTAMP(6),
+    total_duration      BIGINT,
+    amount              DOUBLE PRECISION,
+    parking_zone        VARCHAR(255),
+    parking_slot        VARCHAR(255)
+);
+
+CREATE INDEX idx_billing_ledger_registration_number ON billing_ledger (registration_number, event_type);
+-- A bill can be paid only once
+CREATE UNIQUE INDEX uq_billing_ledger_payment ON billing_ledger (bill_id) WHERE event_type = 1;
+
+-- Carry existing history over: one EXIT event per history row, keeping its id
+INSERT INTO billing_ledger (id, event_type, event_time, registration_number, vehicle_type, owner_name, phone_number,
+                            entry_time, exit_time, total_duration, amount, parking_zone, parking_slot)
+SELECT id, 0, COALESCE(exit_time, now()), registration_number, vehicle_type, owner_name, phone_number,
+       entry_time, exit_time, total_duration, amount, parking_zone, parking_slot
+FROM history;
+
+SELECT setval(pg_get_serial_sequence('billing_ledger', 'id'), COALESCE((SELECT MAX(id) FROM billing_ledger), 0) + 1, false);
+
+-- ...and a PAYMENT event for every row that was paid
+INSERT INTO billing_ledger (event_type, bill_id, event_time, registration_number, amount)
+SELECT 1, id, COALESCE(exit_time, now()), registration_number, amount
+FROM history
+WHERE status = 1;
+
+-- The old tables are superseded by the ledger; keep them around for reference instead of dropping them
+ALTER TABLE history RENAME TO history_pre_ledger;
+ALTER TABLE receipts RENAME TO receipts_pre_ledger;
+
+-- One row per bill (EXIT event) with its payment, if any. History, Receipt, the finance export and the search
+-- index all read this view, so how the ledger folds into bills is defined here only.
+CREATE VIEW billing_history AS
+SELECT e.id, e.registration_number, e.vehicle_type, e.owner_name, e.phone_number, e.entry_time, e.exit_time,
+       e.total_duration, e.amount, e.parking_zone, e.parking_slot,
+       p.event_time                                                AS paid_time,
+       COALESCE(p.event_time, e.event_time)                        AS receipt_date,
+       CAST(CASE WHEN p.id IS NULL THEN 0 ELSE 1 END AS SMALLINT) AS status
+FROM billing_ledger e
+LEFT JOIN billing_ledger p ON p.bill_id = e.id AND p.event_type = 1
+WHERE e.event_type = 0;
@@ -0,0 +1,204 @@
+package com.car.parking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.car.parking.service.HistoryExportService.COLUMNS;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoryExportServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 8, 0, 0, 123_000_000);
+    private static final String[] TYPE_NAMES = {"string", "long", "double", "timestamp"};
+    private static final String[] EXPECTED_TYPES = {
+            "long", "string", "string", "string", "string", "timestamp", "timestamp", "long", "double", "string",
+            "string", "string", "timestamp"
+    };
+
+    @Test
+    void columnarRoundTripsAcrossBlocks() throws IOException {
+        List<Object[]> rows = rows(2 * HistoryExportService.ColumnarRowWriter.BLOCK_SIZE + 5);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HistoryExportService.RowWriter writer = new HistoryExportService.ColumnarRowWriter(out);
+        for (Object[] row : rows) {
+            writer.write(row);
+        }
+        writer.finish();
+
+        List<Integer> blockSizes = new ArrayList<>();
+        List<Object[]> decoded = decodeColumnar(out.toByteArray(), blockSizes);
+
+        assertEquals(List.of(8192, 8192, 5), blockSizes);
+        assertEquals(rows.size(), decoded.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertArrayEquals(rows.get(i), decoded.get(i), "row " + i);
+        }
+    }
+
+    @Test
+    void columnarWritesAnEmptyExportAsHeaderAndEndMarker() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new HistoryExportService.ColumnarRowWriter(out).finish();
+
+        List<Integer> blockSizes = new ArrayList<>();
+        assertTrue(decodeColumnar(out.toByteArray(), blockSizes).isEmpty());
+        assertTrue(blockSizes.isEmpty());
+    }
+
+    @Test
+    void csvQuotesSeparatorsQuotesAndLineBreaks() throws IOException {
+        List<Object[]> rows = rows(20);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HistoryExportService.RowWriter writer = new HistoryExportService.CsvRowWriter(out);
+        for (Object[] row : rows) {
+            writer.write(row);
+        }
+        writer.finish();
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        List<List<String>> records = parseCsv(csv);
+
+        assertTrue(csv.contains("\"Shah, Anita\""));
+        assertTrue(csv.contains("\"Ravi \"\"RK\"\" Kumar\""));
+        assertEquals(Arrays.asList(COLUMNS), records.get(0));
+        assertEquals(rows.size() + 1, records.size());
+        for (int i = 0; i < rows.size(); i++) {
+            List<String> expected = Arrays.stream(rows.get(i)).map(value -> value == null ? "" : value.toString()).toList();
+            assertEquals(expected, records.get(i + 1), "row " + i);
+        }
+    }
+
+    // Rows in export column order, with nulls and values that need quoting in CSV
+    private static List<Object[]> rows(int count) {
+        String[] owners = {"Shah, Anita", "Ravi \"RK\" Kumar", "Line\nbreak", null, "Sunil Rao"};
+        String[] types = {"Car", "Motorcycle", "Van"};
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime entry = DAY.plusMinutes(i);
+            LocalDateTime exit = i % 7 == 0 ? null : entry.plusMinutes(90);
+            boolean paid = i % 3 == 0;
+            rows.add(new Object[]{
+                    (long) i + 1,
+                    "MH" + i,
+                    types[i % types.length],
+                    owners[i % owners.length],
+                    i % 4 == 0 ? null : "98765" + i,
+                    entry,
+                    exit,
+                    exit == null ? null : 90L,
+                    exit == null ? null : 45.5 + i,
+                    "A",
+                    "A" + (i % 10 + 1),
+                    paid ? "PAID" : "UNPAID",
+                    paid && exit != null ? exit.plusMinutes(5) : null
+            });
+        }
+        return rows;
+    }
+
+    // Reference decoder for the layout documented on ColumnarRowWriter
+    private static List<Object[]> decodeColumnar(byte[] bytes, List<Integer> blockSizes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        assertEquals("PHC1", new String(in.readNBytes(4), StandardCharsets.US_ASCII));
+        int columns = in.readInt();
+        assertEquals(COLUMNS.length, columns);
+        byte[] types = new byte[columns];
+        for (int column = 0; column < columns; column++) {
+            assertEquals(COLUMNS[column], in.readUTF());
+            types[column] = in.readByte();
+            assertEquals(EXPECTED_TYPES[column], TYPE_NAMES[types[column]]);
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        int blockRows;
+        while ((blockRows = in.readInt()) != 0) {
+            blockSizes.add(blockRows);
+            Object[][] block = new Object[blockRows][columns];
+            for (int column = 0; column < columns; column++) {
+                if (types[column] == 0) {
+                    String[] dictionary = new String[readVarInt(in)];
+                    for (int d = 0; d < dictionary.length; d++) {
+                        dictionary[d] = in.readUTF();
+                    }
+                    for (int row = 0; row < blockRows; row++) {
+                        int ref = readVarInt(in);
+                        block[row][column] = ref == 0 ? null : dictionary[ref - 1];
+                    }
+                } else {
+                    byte[] presence = in.readNBytes((blockRows + 7) / 8);
+                    for (int row = 0; row < blockRows; row++) {
+                        if ((presence[row >> 3] & (1 << (row & 7))) == 0) {
+                            continue;
+                        }
+                        block[row][column] = switch (types[column]) {
+                            case 1 -> in.readLong();
+                            case 2 -> in.readDouble();
+                            default -> LocalDateTime.ofInstant(Instant.ofEpochMilli(in.readLong()), ZoneOffset.UTC);
+                        };
+                    }
+                }
+            }
+            rows.addAll(Arrays.asList(block));
+        }
+        assertEquals(-1, in.read(), "trailing bytes after the end marker");
+        return rows;
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    // Minimal RFC 4180 reader: quoted fields may hold separators, doubled quotes and line breaks
+    private static List<List<String>> parseCsv(String csv) {
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < csv.length(); i++) {
+            char c = csv.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' && i + 1 < csv.length() && csv.charAt(i + 1) == '\n') {
+                record.add(field.toString());
+                field.setLength(0);
+                records.add(record);
+                record = new ArrayList<>();
+                i++;
+            } else {
+                field.append(c);
+            }
+        }
+        assertTrue(record.isEmpty() && field.isEmpty(), "CSV must end with a line break");
+        return records;
+    }
+}
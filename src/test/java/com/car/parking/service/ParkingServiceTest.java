@@ -0,0 +1,70 @@
+package com.car.parking.service;
+
+import com.car.parking.model.OccupancySnapshot;
+import com.car.parking.model.SlotStatus;
+import com.car.parking.repository.BillingLedgerRepository;
+import com.car.parking.repository.HistoryRepository;
+import com.car.parking.repository.ParkingLotRepository;
+import com.car.parking.repository.ReceiptRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ParkingServiceTest {
+
+    private final ParkingLotRepository parkingLotRepository = mock(ParkingLotRepository.class);
+
+    @SuppressWarnings("unchecked")
+    private final ParkingService parkingService = new ParkingService(mock(VehicleCache.class), parkingLotRepository,
+            mock(HistoryRepository.class), mock(ReceiptRepository.class), mock(BillingLedgerRepository.class),
+            mock(ObjectProvider.class), mock(ReservationService.class), mock(SearchIndex.class));
+
+    @Test
+    void occupancyBitmapIsLeastSignificantBitFirstInSlotOrder() {
+        // Two zones of ten in slot order: A1 (bit 0) .. A10 (bit 9), B1 (bit 10) .. B10 (bit 19)
+        when(parkingLotRepository.findAllStatusesInSlotOrder()).thenReturn(statuses(20, Set.of(0, 3, 9, 10, 19)));
+
+        OccupancySnapshot snapshot = parkingService.getOccupancySnapshot();
+
+        assertEquals(20, snapshot.getSlotCount());
+        assertEquals(5, snapshot.getOccupiedCount());
+        // A1, A4 | A10, B1 | B10
+        assertArrayEquals(new byte[]{0b0000_1001, 0b0000_0110, 0b0000_1000}, snapshot.getBitmap());
+    }
+
+    @Test
+    void occupancyBitmapUsesTheHighBitAndPadsTheLastByteWithZeros() {
+        when(parkingLotRepository.findAllStatusesInSlotOrder()).thenReturn(statuses(9, Set.of(7, 8)));
+
+        OccupancySnapshot snapshot = parkingService.getOccupancySnapshot();
+
+        assertEquals(2, snapshot.getOccupiedCount());
+        assertArrayEquals(new byte[]{(byte) 0b1000_0000, 0b0000_0001}, snapshot.getBitmap());
+    }
+
+    @Test
+    void emptyLotHasAnEmptyBitmap() {
+        when(parkingLotRepository.findAllStatusesInSlotOrder()).thenReturn(List.of());
+
+        OccupancySnapshot snapshot = parkingService.getOccupancySnapshot();
+
+        assertEquals(0, snapshot.getSlotCount());
+        assertEquals(0, snapshot.getOccupiedCount());
+        assertEquals(0, snapshot.getBitmap().length);
+    }
+
+    private static List<SlotStatus> statuses(int slots, Set<Integer> occupied) {
+        List<SlotStatus> statuses = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            statuses.add(occupied.contains(i) ? SlotStatus.OCCUPIED : SlotStatus.AVAILABLE);
+        }
+        return statuses;
+    }
+}
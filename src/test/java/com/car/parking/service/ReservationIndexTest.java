@@ -0,0 +1,129 @@
+package com.car.parking.service;
+
+import com.car.parking.model.Reservation;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationIndexTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private final ReservationIndex index = new ReservationIndex();
+
+    @Test
+    void touchingWindowsDoNotConflict() {
+        assertTrue(index.add(reservation("MH01", 10, 12)));
+        assertTrue(index.add(reservation("MH02", 12, 14)));
+        assertTrue(index.add(reservation("MH03", 8, 10)));
+    }
+
+    @Test
+    void overlappingWindowsAreRejected() {
+        assertTrue(index.add(reservation("MH01", 10, 12)));
+
+        assertFalse(index.add(reservation("MH02", 11, 13)));
+        assertFalse(index.add(reservation("MH02", 9, 11)));
+        assertFalse(index.add(reservation("MH02", 9, 15)));
+        assertFalse(index.add(reservation("MH02", 10, 12)));
+    }
+
+    @Test
+    void windowsOnOtherSlotsDoNotConflict() {
+        assertTrue(index.add(reservation("MH01", 10, 12)));
+        Reservation otherSlot = reservation("MH02", 10, 12);
+        otherSlot.setSlot("A2");
+
+        assertTrue(index.add(otherSlot));
+    }
+
+    @Test
+    void findConflictWalksEveryOverlappingInterval() {
+        index.add(reservation("MH01", 10, 12));
+        index.add(reservation("MH02", 12, 14));
+        index.add(reservation("MH03", 14, 16));
+
+        // Starts inside MH01's window (found by the floor lookup), ends inside MH03's (found by the range walk)
+        assertEquals("MH01", index.findConflict("A", "A1", at(11), at(15), null).registrationNumber());
+        assertEquals("MH03", index.findConflict("A", "A1", at(15), at(17), null).registrationNumber());
+        assertNull(index.findConflict("A", "A1", at(16), at(18), null));
+        assertNull(index.findConflict("A", "A1", at(8), at(10), null));
+    }
+
+    @Test
+    void ignoredHolderDoesNotConflictWithItself() {
+        index.add(reservation("MH01", 10, 12));
+        index.add(reservation("MH02", 12, 14));
+
+        assertNull(index.findConflict("A", "A1", at(10), at(12), "MH01"));
+        assertEquals("MH02", index.findConflict("A", "A1", at(11), at(13), "MH01").registrationNumber());
+        assertEquals("MH01", index.findConflict("A", "A1", at(11), at(13), "MH02").registrationNumber());
+    }
+
+    @Test
+    void findOwnReturnsTheHoldersInterval() {
+        index.add(reservation("MH01", 10, 12));
+        index.add(reservation("MH02", 12, 14));
+
+        assertEquals(at(12), index.findOwn("A", "A1", at(9), at(13), "MH02").start());
+        assertNull(index.findOwn("A", "A1", at(9), at(12), "MH02"));
+    }
+
+    @Test
+    void pruneDropsEndedIntervalsOnly() {
+        index.add(reservation("MH01", 10, 12));
+        index.add(reservation("MH02", 12, 14));
+
+        index.pruneEndedBefore(at(12));
+
+        assertNull(index.findConflict("A", "A1", at(10), at(12), null));
+        assertNotNull(index.findConflict("A", "A1", at(12), at(13), null));
+        assertTrue(index.add(reservation("MH03", 10, 12)));
+    }
+
+    @Test
+    void removeFreesTheWindow() {
+        Reservation reservation = reservation("MH01", 10, 12);
+        index.add(reservation);
+
+        index.remove(reservation);
+
+        assertNull(index.findConflict("A", "A1", at(10), at(12), null));
+    }
+
+    @Test
+    void removeMatchesTheHolderEvenAfterTheEndChanged() {
+        index.add(reservation("MH01", 10, 12));
+
+        index.remove(reservation("MH02", 10, 12));
+        assertNotNull(index.findConflict("A", "A1", at(10), at(12), null));
+
+        // Read back after its holder left early, with a shortened window
+        index.remove(reservation("MH01", 10, 11));
+        assertNull(index.findConflict("A", "A1", at(10), at(12), null));
+    }
+
+    @Test
+    void restoreIsIdempotentButStillRejectsConflicts() {
+        index.add(reservation("MH01", 10, 12));
+
+        assertTrue(index.restore(reservation("MH01", 10, 12)));
+        assertFalse(index.restore(reservation("MH02", 11, 13)));
+    }
+
+    private static Reservation reservation(String registrationNumber, int startHour, int endHour) {
+        Reservation reservation = new Reservation();
+        reservation.setRegistrationNumber(registrationNumber);
+        reservation.setZone("A");
+        reservation.setSlot("A1");
+        reservation.setStartTime(at(startHour));
+        reservation.setEndTime(at(endHour));
+        return reservation;
+    }
+
+    private static LocalDateTime at(int hour) {
+        return DAY.plusHours(hour);
+    }
+}
@@ -0,0 +1,163 @@
+package com.car.parking.service;
+
+import com.car.parking.model.BillingEvent;
+import com.car.parking.model.BillingEventType;
+import com.car.parking.model.History;
+import com.car.parking.model.PaymentStatus;
+import com.car.parking.model.SearchResult;
+import com.car.parking.model.Vehicle;
+import com.car.parking.repository.ParkingLotRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class SearchIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    private final SearchIndex index = new SearchIndex(mock(ParkingLotRepository.class), mock(VehicleCache.class),
+            mock(DataSource.class), mock(PlatformTransactionManager.class), Duration.ofDays(90));
+
+    @Test
+    void oneCharacterQueryMatchesPrefixesOnly() {
+        park("MH12AB1234", "Ravi Kumar", "9876543210", "A1");
+        park("KA01XY9999", "Anita Shah", "8123456789", "A2");
+
+        assertEquals(List.of("MH12AB1234"), plates(index.search("m", 20)));
+        assertEquals(List.of("MH12AB1234"), plates(index.search("9", 20)));
+        assertEquals(List.of("KA01XY9999"), plates(index.search("8", 20)));
+        assertTrue(index.search("z", 20).isEmpty());
+    }
+
+    @Test
+    void twoCharacterQueryMatchesPlatePhoneAndNamePrefixes() {
+        park("MH12AB1234", "Ravi Kumar", "9876543210", "A1");
+        park("KA01XY9999", "Anita Shah", "8123456789", "A2");
+
+        assertEquals(List.of("MH12AB1234"), plates(index.search("mh", 20)));
+        assertEquals(List.of("KA01XY9999"), plates(index.search("an", 20)));
+        assertEquals(List.of("KA01XY9999"), plates(index.search("81", 20)));
+        // "HX" appears nowhere, and "AB" only inside a plate, which a short query does not match
+        assertTrue(index.search("hx", 20).isEmpty());
+        assertTrue(index.search("ab", 20).isEmpty());
+    }
+
+    @Test
+    void longerQueryMatchesPrefixesAndSubstringsWithPrefixesFirst() {
+        park("MH12AB1234", "Ravi Kumar", "9876543210", "A1");
+        park("AB12MH0001", "Sunil Rao", "7000000000", "A2");
+
+        List<SearchResult> results = index.search("mh 12-ab", 20);
+        assertEquals("MH12AB1234", results.get(0).getRegistrationNumber());
+        assertEquals(3.0, results.get(0).getScore());
+
+        List<SearchResult> substring = index.search("AB12", 20);
+        assertEquals(List.of("AB12MH0001", "MH12AB1234"), plates(substring));
+        assertEquals(2.0, substring.get(1).getScore());
+    }
+
+    @Test
+    void fuzzyQueryNeedsHalfOfItsTrigrams() {
+        park("MH12AB1234", "Ravi Kumar", "9876543210", "A1");
+
+        // Last two digits swapped: 6 of 8 trigrams still match
+        assertEquals(List.of("MH12AB1234"), plates(index.search("MH12AB1243", 20)));
+        // Only AB1 and B12 match, 2 of 5
+        assertTrue(index.search("ZZZZAB12", 20).isEmpty());
+    }
+
+    @Test
+    void limitKeepsTheBestResults() {
+        for (int i = 0; i < 5; i++) {
+            park("MH0" + i, "Owner " + i, "90000000" + i, "A" + i);
+        }
+
+        assertEquals(2, index.search("mh", 2).size());
+        assertEquals(3, index.search("MH0", 3).size());
+        assertTrue(index.search("mh", 0).isEmpty());
+    }
+
+    @Test
+    void parkedVehiclesRankAboveHistoryWithTheSameScore() {
+        exitAndPay("MH12CD0001", "Old Owner", "9111111111", NOW.minusDays(1));
+        park("MH12AB1234", "Ravi Kumar", "9876543210", "A1");
+
+        List<SearchResult> results = index.search("MH12", 20);
+
+        assertEquals(List.of("MH12AB1234", "MH12CD0001"), plates(results));
+        assertTrue(results.get(0).isParked());
+        assertEquals(PaymentStatus.PAID, results.get(1).getLastStatus());
+    }
+
+    @Test
+    void pruneDropsOldHistoryAndCompactionKeepsTheRestSearchable() {
+        for (int i = 0; i < 3; i++) {
+            exitAndPay("OLD00" + i, "Gone " + i, "95555555" + i, NOW.minusDays(200));
+        }
+        park("MH12AB1234", "Ravi Kumar", "9876543210", "A1");
+
+        index.prune();
+
+        assertTrue(index.search("OLD", 20).isEmpty());
+        assertTrue(index.search("ol", 20).isEmpty());
+        assertEquals(List.of("MH12AB1234"), plates(index.search("MH12AB", 20)));
+        assertEquals(List.of("MH12AB1234"), plates(index.search("ra", 20)));
+
+        park("NEW123", "New Owner", "9222222222", "A2");
+        assertEquals(List.of("NEW123"), plates(index.search("new", 20)));
+    }
+
+    @Test
+    void staleEventDoesNotOverwriteNewerState() {
+        LocalDateTime exitTime = NOW.minusHours(1);
+        exitAndPay("MH12AB1234", "Ravi Kumar", "9876543210", exitTime);
+
+        // A history row read before the payment arrives late, as during the startup load
+        index.onExit(exitEvent("MH12AB1234", "Ravi Kumar", "9876543210", exitTime.minusMinutes(1)));
+
+        assertEquals(PaymentStatus.PAID, index.search("MH12AB", 20).get(0).getLastStatus());
+    }
+
+    private void park(String registrationNumber, String ownerName, String phoneNumber, String slot) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setRegistrationNumber(registrationNumber);
+        vehicle.setOwnerName(ownerName);
+        vehicle.setPhoneNumber(phoneNumber);
+        vehicle.setVehicleType("Car");
+        vehicle.setEntryTime(NOW);
+        index.onParked(vehicle, "A", slot);
+    }
+
+    private void exitAndPay(String registrationNumber, String ownerName, String phoneNumber, LocalDateTime exitTime) {
+        index.onExit(exitEvent(registrationNumber, ownerName, phoneNumber, exitTime));
+        History history = new History();
+        history.setRegistrationNumber(registrationNumber);
+        history.setOwnerName(ownerName);
+        history.setPhoneNumber(phoneNumber);
+        history.setVehicleType("Car");
+        index.onPaid(history, exitTime.plusMinutes(5));
+    }
+
+    private static BillingEvent exitEvent(String registrationNumber, String ownerName, String phoneNumber,
+                                          LocalDateTime exitTime) {
+        BillingEvent exitEvent = new BillingEvent();
+        exitEvent.setEventType(BillingEventType.EXIT);
+        exitEvent.setRegistrationNumber(registrationNumber);
+        exitEvent.setOwnerName(ownerName);
+        exitEvent.setPhoneNumber(phoneNumber);
+        exitEvent.setVehicleType("Car");
+        exitEvent.setExitTime(exitTime);
+        return exitEvent;
+    }
+
+    private static List<String> plates(List<SearchResult> results) {
+        return results.stream().map(SearchResult::getRegistrationNumber).toList();
+    }
+}
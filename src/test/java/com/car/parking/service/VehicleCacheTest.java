@@ -0,0 +1,113 @@
+package com.car.parking.service;
+
+import com.car.parking.model.Vehicle;
+import com.car.parking.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class VehicleCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(30);
+
+    private final VehicleRepository vehicleRepository = mock(VehicleRepository.class);
+    private final AtomicLong now = new AtomicLong();
+    private final VehicleCache cache = new VehicleCache(vehicleRepository, 2, TTL, now::get);
+
+    @BeforeEach
+    void setUp() {
+        when(vehicleRepository.save(any(Vehicle.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(vehicleRepository.findById(any())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void savedVehicleIsServedWithoutTheDatabase() {
+        cache.save(vehicle("MH01", "Ravi"));
+
+        assertEquals("Ravi", cache.findById("MH01").orElseThrow().getOwnerName());
+        assertTrue(cache.existsById("MH01"));
+        verify(vehicleRepository, never()).findById(any());
+    }
+
+    @Test
+    void missIsLoadedOnceAndThenCached() {
+        when(vehicleRepository.findById("MH01")).thenReturn(Optional.of(vehicle("MH01", "Ravi")));
+
+        assertTrue(cache.findById("MH01").isPresent());
+        assertTrue(cache.findById("MH01").isPresent());
+
+        verify(vehicleRepository, times(1)).findById("MH01");
+    }
+
+    @Test
+    void entryThatKeepsBeingReadDoesNotExpire() {
+        cache.save(vehicle("MH01", "Ravi"));
+
+        // Read every 20 minutes for two hours, well past the TTL counted from the save
+        for (int i = 0; i < 6; i++) {
+            advance(Duration.ofMinutes(20));
+            assertTrue(cache.findById("MH01").isPresent());
+        }
+        verify(vehicleRepository, never()).findById(any());
+    }
+
+    @Test
+    void entryExpiresOnceUnreadForTheTtl() {
+        cache.save(vehicle("MH01", "Ravi"));
+
+        advance(TTL.plusSeconds(1));
+
+        assertTrue(cache.findById("MH01").isEmpty());
+        verify(vehicleRepository).findById("MH01");
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedWhenFull() {
+        cache.save(vehicle("MH01", "Ravi"));
+        cache.save(vehicle("MH02", "Anita"));
+        cache.findById("MH01");
+
+        cache.save(vehicle("MH03", "Sunil"));
+
+        assertTrue(cache.findById("MH01").isPresent());
+        assertTrue(cache.findById("MH03").isPresent());
+        assertTrue(cache.findById("MH02").isEmpty());
+        verify(vehicleRepository, never()).findById("MH01");
+        verify(vehicleRepository, never()).findById("MH03");
+        verify(vehicleRepository).findById("MH02");
+    }
+
+    @Test
+    void callersGetCopies() {
+        Vehicle saved = vehicle("MH01", "Ravi");
+        cache.save(saved);
+        saved.setOwnerName("Changed after save");
+
+        Vehicle first = cache.findById("MH01").orElseThrow();
+        first.setOwnerName("Changed by caller");
+
+        Vehicle second = cache.findById("MH01").orElseThrow();
+        assertEquals("Ravi", second.getOwnerName());
+        assertNotSame(first, second);
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    private static Vehicle vehicle(String registrationNumber, String ownerName) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setRegistrationNumber(registrationNumber);
+        vehicle.setOwnerName(ownerName);
+        vehicle.setPhoneNumber("9876543210");
+        vehicle.setVehicleType("Car");
+        return vehicle;
+    }
+}